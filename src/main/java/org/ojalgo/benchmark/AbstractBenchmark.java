@@ -22,27 +22,33 @@
 package org.ojalgo.benchmark;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
 
 import org.ojalgo.OjAlgoUtils;
 import org.ojalgo.benchmark.ForkedTask.ReturnValue;
-import org.ojalgo.concurrent.ExternalProcessExecutor;
 import org.ojalgo.concurrent.Parallelism;
 import org.ojalgo.concurrent.ParallelismSupplier;
-import org.ojalgo.concurrent.ProcessingService;
 import org.ojalgo.matrix.task.iterative.ConjugateGradientSolver;
 import org.ojalgo.matrix.task.iterative.JacobiPreconditioner;
 import org.ojalgo.matrix.task.iterative.MINRESSolver;
@@ -54,6 +60,7 @@ import org.ojalgo.netio.BasicLogger;
 import org.ojalgo.netio.TextLineWriter;
 import org.ojalgo.netio.TextLineWriter.CSVLineBuilder;
 import org.ojalgo.optimisation.ExpressionsBasedModel;
+import org.ojalgo.optimisation.ExpressionsBasedModel.FileFormat;
 import org.ojalgo.optimisation.Optimisation;
 import org.ojalgo.optimisation.Optimisation.Result;
 import org.ojalgo.optimisation.Optimisation.State;
@@ -75,24 +82,277 @@ public abstract class AbstractBenchmark {
 
     public static final class Configuration {
 
+        /**
+         * Size statistics of the models, optional
+         */
+        public CorpusIndex corpus = null;
+        /**
+         * A journal from a previous run, used (only) to predict runtimes when scheduling the work
+         */
+        public String history = null;
+        /**
+         * Every measurement is appended to this file as it arrives
+         */
+        public String journal = "./src/main/resources/benchmark_journal.tsv";
         /**
          * ms
          */
         public long maxWaitTime = 1_000L * 60L * 5L;
+        /**
+         * Worker JVMs are reused for this many model/solver pairs before being recycled. Set to 1 to get a
+         * fresh JVM for every measurement.
+         */
+        public int maxTasksPerWorker = 100;
+        /**
+         * A model/solver pair is measured (iterated) at least this many times - at least 2 for the
+         * {@link #stoppingRule} to have a sample variance, or the same as {@link #maxSamples} to take a fixed
+         * number of samples...
+         */
+        public int minSamples = 3;
+        /**
+         * ...and at most this many times, regardless of the {@link #stoppingRule}
+         */
+        public int maxSamples = 20;
+        public StoppingRule stoppingRule = StoppingRule.CONFIDENCE_INTERVAL;
+        /**
+         * Relative tolerance used by the {@link #stoppingRule}
+         */
+        public double stoppingTolerance = 0.05;
+        /**
+         * Racing mode: once the reference solver's time on a model is stable, the other contenders get at most
+         * {@link #racingFactor} times the reference (median) time plus {@link #racingMargin} (and never more
+         * than {@link #maxWaitTime}). Pairs that exceed that are {@link FailReason#ABANDONED}. Until then -
+         * always in the first iteration - they get the full {@link #maxWaitTime}. The limit is on the solving,
+         * starting the worker JVM and loading the model is not included.
+         */
+        public boolean racing = false;
+        public double racingFactor = 100.0;
+        /**
+         * ms
+         */
+        public long racingMargin = 1_000L;
         public ParallelismSupplier parallelism = Parallelism.CORES.halve().adjustDown();
+        /**
+         * Only benchmark models of these size profiles (requires the {@link #corpus}). Empty means all.
+         */
+        public final Set<CorpusIndex.Profile> profiles = EnumSet.noneOf(CorpusIndex.Profile.class);
+        /**
+         * Pin each concurrently running worker JVM to its own, disjoint, set of CPUs (and cap its
+         * ActiveProcessorCount accordingly) so that parallel measurements don't interfere.
+         */
+        public boolean pinned = false;
         public String pathPrefix;
         public String pathSuffix = ".SIF";
         public String refeenceSolver = Contender.ORTOOLS;
+        /**
+         * ms, added to every time before taking the (shifted) geometric mean in the leaderboard, so that very
+         * short times don't dominate the ranking
+         */
+        public double shift = 1_000.0;
+        /**
+         * Phase mode: after the ordinary measurements, solve each model once more, step by step, to time the
+         * parse/simplify/build/solve/map phases. Off by default as it's an extra full solve per measurement.
+         */
+        public boolean phases = false;
+        /**
+         * Solve the LP relaxation of (MIP) models
+         */
+        public boolean relax = false;
+        /**
+         * Warm-start mode: after the ordinary (cold) measurements, the model is perturbed and re-solved this
+         * many times - comparing cold and warm re-solves. 0 means off. See {@link ForkedTask.ReSolves}.
+         */
+        public int reSolves = 0;
+        /**
+         * Combined with the model name, seeds the warm-start mode perturbations - every contender gets the
+         * same sequence of changes to the same model
+         */
+        public long seed = 1L;
+        /**
+         * Continue a previous (interrupted) run - restore its state from the {@link #journal} and skip the
+         * model/solver pairs that are already done.
+         */
+        public boolean resume = false;
+        /**
+         * The (minimum) state a solution must have to be accepted: OPTIMAL or FEASIBLE. When only feasibility
+         * is required the solution value is not checked.
+         */
+        public Optimisation.State requiredState = Optimisation.State.OPTIMAL;
+        /**
+         * ms, passed on to the solvers' options when > 0. Should be less than {@link #maxWaitTime}.
+         */
+        public long timeAbort = 0L;
+        /**
+         * ms, passed on to the solvers' options when > 0.
+         */
+        public long timeSuffice = 0L;
         public final Map<String, BigDecimal> values = new HashMap<>();
+        /**
+         * Minimum heap mode: instead of benchmarking, find the smallest worker heap (-Xmx) at which each
+         * model/solver pair still solves, see {@link MinimumHeap}
+         */
+        public boolean minimumHeap = false;
+        /**
+         * Minimum heap mode, how much slower than with the default heap a solve may be
+         */
+        public double heapSlowdown = 1.2;
+        /**
+         * Directory for Java Flight Recordings of the worker executions, null means no recording. Only the
+         * recordings of pairs that fail, or are more than {@link #recordingThreshold} times slower than the
+         * reference solver, are kept. See {@link FlightRecordings}
+         */
+        public String recordings = null;
+        public double recordingThreshold = 2.0;
+        /**
+         * {@link ParameterSweep}s - every model is also run with each of the contenders they expand to
+         */
+        public final List<String> sweeps = new ArrayList<>();
+        /**
+         * Throughput mode: instead of timing one solve at a time, each model/solver pair is solved by many
+         * concurrent clients, see {@link ForkedTask.Throughput}
+         */
+        public boolean throughput = false;
+        /**
+         * ms, throughput mode time spent at each concurrency level
+         */
+        public long throughputTime = 5_000L;
+        /**
+         * Additional ojAlgo versions (or jar files). Every ojAlgo contender is also run with each of these -
+         * side by side with the default version, under the same conditions.
+         */
+        public final List<String> versions = new ArrayList<>();
+
+        public boolean isAccepted(final Optimisation.State state) {
+            if (requiredState == Optimisation.State.FEASIBLE) {
+                return state.isFeasible();
+            } else {
+                return state.isOptimal();
+            }
+        }
+
+        /**
+         * Apply command line arguments: "--resume", "--racing", "--pinned", "--history=<journal>",
+         * "--profile=<profile>[,<profile>...]", "--sweep=<sweep>" (may be repeated),
+         * "--versions=<version or jar>[,<version or jar>...]", "--warm=<re-solves>", "--phases", "--throughput",
+         * "--heap[=<slowdown>]" and "--jfr[=<directory>]"
+         */
+        public void parse(final String... args) {
+            for (String arg : args) {
+                if ("--resume".equals(arg)) {
+                    resume = true;
+                } else if ("--racing".equals(arg)) {
+                    racing = true;
+                } else if ("--pinned".equals(arg)) {
+                    pinned = true;
+                } else if ("--phases".equals(arg)) {
+                    phases = true;
+                } else if ("--throughput".equals(arg)) {
+                    throughput = true;
+                } else if ("--jfr".equals(arg)) {
+                    recordings = "./target/jfr";
+                } else if (arg.startsWith("--jfr=")) {
+                    recordings = arg.substring("--jfr=".length());
+                } else if ("--heap".equals(arg)) {
+                    minimumHeap = true;
+                } else if (arg.startsWith("--heap=")) {
+                    minimumHeap = true;
+                    heapSlowdown = Double.parseDouble(arg.substring("--heap=".length()));
+                } else if (arg.startsWith("--history=")) {
+                    history = arg.substring("--history=".length());
+                } else if (arg.startsWith("--warm=")) {
+                    reSolves = Integer.parseInt(arg.substring("--warm=".length()));
+                } else if (arg.startsWith("--sweep=")) {
+                    sweeps.add(arg.substring("--sweep=".length()));
+                } else if (arg.startsWith("--versions=")) {
+                    for (String version : arg.substring("--versions=".length()).split(",")) {
+                        if (!version.isBlank()) {
+                            versions.add(version.trim());
+                        }
+                    }
+                } else if (arg.startsWith("--profile=")) {
+                    profiles.addAll(CorpusIndex.Profile.parse(arg.substring("--profile=".length())));
+                }
+            }
+            if (minSamples < 2 && maxSamples > minSamples) {
+                throw new IllegalArgumentException("minSamples must be at least 2 (or equal to maxSamples), was " + minSamples);
+            }
+        }
+
+        /**
+         * Is the model within the selected {@link #profiles}?
+         */
+        public boolean isSelected(final String modelName) {
+            if (profiles.isEmpty() || corpus == null) {
+                return true;
+            }
+            CorpusIndex.Entry entry = corpus.get(modelName);
+            return entry != null && profiles.contains(entry.getProfile());
+        }
 
         public String path(final String modelName) {
             return pathPrefix + modelName + pathSuffix;
         }
 
+        /**
+         * Only check solution values when optimality is required
+         */
+        boolean isValueChecked() {
+            return requiredState != Optimisation.State.FEASIBLE;
+        }
+
+        /**
+         * ms, the time limit for this pair - in racing mode derived from the reference solver's median time on
+         * the same model. A single (lucky) fast sample shouldn't set the limit for everyone, so there is no
+         * racing limit until the reference solver's time is stable. That is never the case in the first
+         * iteration, and the reference solver's pairs are scheduled first to make it so as soon as possible.
+         */
+        long timeLimit(final ModelSolverPair modelSolverPair, final Map<ModelSolverPair, ResultsSet> totResults) {
+
+            if (!racing || refeenceSolver == null || refeenceSolver.equals(modelSolverPair.solver)) {
+                return maxWaitTime;
+            }
+
+            ResultsSet reference = totResults.get(new ModelSolverPair(modelSolverPair.model, refeenceSolver));
+
+            if (reference == null || reference.fastest == null || reference.fastest == FAILED || !this.isAccepted(reference.fastest.result.getState())
+                    || !reference.isStable()) {
+                return maxWaitTime;
+            }
+
+            double limit = racingFactor * reference.getMedian() + racingMargin;
+
+            return Math.min(maxWaitTime, Math.round(limit));
+        }
+
+        ForkedTask.Request request(final ModelSolverPair modelSolverPair, final long maxWaitTime) {
+
+            ForkedTask.Request request = new ForkedTask.Request(this.path(modelSolverPair.model), modelSolverPair.solver, maxWaitTime);
+
+            request.minSamples = minSamples;
+            request.maxSamples = maxSamples;
+            request.stoppingRule = stoppingRule;
+            request.stoppingTolerance = stoppingTolerance;
+            request.phases = phases;
+            request.relax = relax;
+            request.reSolves = reSolves;
+            request.seed = seed ^ modelSolverPair.model.hashCode();
+            request.timeAbort = timeAbort;
+            request.timeSuffice = timeSuffice;
+
+            return request;
+        }
+
     }
 
     public static final class Contender {
 
+        /**
+         * Separates a contender name from the ojAlgo version, or jar file, it should run with - e.g.
+         * "ojAlgo@56.1.0" or "ojAlgo-dual-S@/path/to/ojalgo.jar". Such contenders are executed in worker JVMs
+         * with that ojAlgo jar on the classpath, instead of the default one.
+         */
+        public static final String VERSION_SEPARATOR = "@";
+
         public static final String ACM = "ACM";
         public static final String CPLEX = "CPLEX";
         public static final String HIPPARCHUS = "Hipparchus";
@@ -122,6 +382,33 @@ public abstract class AbstractBenchmark {
         public static final String OJALGO_QP_QMR_JACOBI = "ojAlgo-QMR-jacobi";
         public static final String OJALGO_QP_QMR_SSORP = "ojAlgo-QMR-ssorp";
 
+        /**
+         * @return The contender name without any ojAlgo version
+         */
+        public static String base(final String contender) {
+            int index = contender.indexOf(VERSION_SEPARATOR);
+            return index >= 0 ? contender.substring(0, index) : contender;
+        }
+
+        /**
+         * @return The contender running with a specific ojAlgo version (or jar file)
+         */
+        public static String of(final String contender, final String ojAlgo) {
+            return Contender.base(contender) + VERSION_SEPARATOR + ojAlgo;
+        }
+
+        /**
+         * @return The ojAlgo version (or jar file) or null if the contender uses the default
+         */
+        public static String version(final String contender) {
+            int index = contender.indexOf(VERSION_SEPARATOR);
+            return index >= 0 ? contender.substring(index + VERSION_SEPARATOR.length()) : null;
+        }
+
+        static boolean isOjAlgo(final String contender) {
+            return contender.startsWith(OJALGO);
+        }
+
     }
 
     public static final class ModelSolverPair implements Comparable<ModelSolverPair> {
@@ -189,7 +476,57 @@ public abstract class AbstractBenchmark {
         }
     }
 
+    /**
+     * When to stop re-measuring a model/solver pair, in addition to the min/max number of samples.
+     */
+    public enum StoppingRule {
+
+        /**
+         * The half-width of the 95% confidence interval of the mean, relative to the mean, is within the
+         * tolerance.
+         */
+        CONFIDENCE_INTERVAL {
+
+            @Override
+            boolean isStable(final ResultsSet results, final double tolerance) {
+                int degreesOfFreedom = results.size() - 1;
+                if (degreesOfFreedom < 1) {
+                    return false;
+                }
+                double t = degreesOfFreedom <= T_95.length ? T_95[degreesOfFreedom - 1] : 1.960;
+                double halfWidth = t * results.getStandardDeviation() / Math.sqrt(results.size());
+                return halfWidth <= tolerance * results.getMean();
+            }
+
+        },
+
+        /**
+         * The coefficient of variation (standard deviation / mean) is within the tolerance.
+         */
+        COEFFICIENT_OF_VARIATION {
+
+            @Override
+            boolean isStable(final ResultsSet results, final double tolerance) {
+                return results.getCoefficientOfVariation() <= tolerance;
+            }
+
+        };
+
+        /**
+         * Student's t, two-sided 95%, for 1 to 30 degrees of freedom
+         */
+        static final double[] T_95 = { 12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228, 2.201, 2.179, 2.160, 2.145, 2.131, 2.120,
+                2.110, 2.101, 2.093, 2.086, 2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042 };
+
+        abstract boolean isStable(ResultsSet results, double tolerance);
+
+    }
+
     enum FailReason {
+        /**
+         * Racing mode: too slow compared to the reference solver
+         */
+        ABANDONED,
         /**
          * Unexpected error/exception
          */
@@ -223,24 +560,53 @@ public abstract class AbstractBenchmark {
 
     static final class ResultsSet {
 
-        static boolean isSimilar(final double value1, final double value2, final double halfRelativeError) {
-            return (Math.abs(value1 - value2) / (value1 + value2) < halfRelativeError);
-        }
-
         public TimedResult<Optimisation.Result> fastest;
+        /**
+         * Allocation/GC activity of the fastest (worker reported) sample, may be null
+         */
+        public ForkedTask.Usage usage;
+        /**
+         * Phase timings, from the most recent worker reporting them, may be null
+         */
+        public ForkedTask.Phases phases;
+        /**
+         * Warm-start mode re-solve timings, from the most recent worker reporting them, may be null
+         */
+        public ForkedTask.ReSolves reSolves;
 
-        private final List<TimedResult<Optimisation.Result>> all = new ArrayList<>();
-        private final double myHalfRelativeTimeError;
+        private final int myMaxSamples;
+        private final int myMinSamples;
+        private final StoppingRule myRule;
+        /**
+         * ms
+         */
+        private double[] mySamples = new double[8];
+        private int mySize = 0;
+        private final double myTolerance;
         private final NumberContext myValueAccuracy;
 
         public ResultsSet() {
-            this(ACCURACY, 0.1);
+            this(ACCURACY, StoppingRule.CONFIDENCE_INTERVAL, 0.05, 3, 20);
+        }
+
+        ResultsSet(final Configuration configuration) {
+            this(ACCURACY, configuration.stoppingRule, configuration.stoppingTolerance, configuration.minSamples, configuration.maxSamples);
+        }
+
+        /**
+         * Worker side, sampling as the master's {@link Configuration} specifies
+         */
+        ResultsSet(final ForkedTask.Request request) {
+            this(ACCURACY, request.stoppingRule, request.stoppingTolerance, request.minSamples, request.maxSamples);
         }
 
-        private ResultsSet(final NumberContext valueAccuracy, final double timeAccuracy) {
+        private ResultsSet(final NumberContext valueAccuracy, final StoppingRule rule, final double tolerance, final int minSamples, final int maxSamples) {
             super();
             myValueAccuracy = valueAccuracy;
-            myHalfRelativeTimeError = timeAccuracy / 2D;
+            myRule = rule;
+            myTolerance = tolerance;
+            myMinSamples = minSamples;
+            myMaxSamples = maxSamples;
         }
 
         public TimedResult<Result> add(final ForkedTask.ReturnValue returnValue) {
@@ -261,7 +627,24 @@ public abstract class AbstractBenchmark {
 
             TimedResult<Result> another = new TimedResult<>(result, duration);
 
-            this.add(another);
+            if (returnValue.usage != null && (usage == null || mySize == 0 || returnValue.time < this.getMin())) {
+                usage = returnValue.usage;
+            }
+            if (returnValue.phases != null) {
+                phases = returnValue.phases;
+            }
+            if (returnValue.reSolves != null) {
+                reSolves = returnValue.reSolves;
+            }
+
+            if (returnValue.samples != null) {
+                for (int i = 0; i < returnValue.samples.length; i++) {
+                    this.sample(returnValue.samples[i]);
+                }
+                this.compare(another);
+            } else {
+                this.add(another);
+            }
 
             return another;
         }
@@ -278,7 +661,111 @@ public abstract class AbstractBenchmark {
                 return;
             }
 
-            all.add(another);
+            if (another != FAILED) {
+                this.sample(anotherD.toDurationInNanos() / 1_000_000.0);
+            }
+
+            this.compare(another);
+        }
+
+        /**
+         * Coefficient of variation (standard deviation / mean) of the samples
+         */
+        public double getCoefficientOfVariation() {
+            return this.getStandardDeviation() / this.getMean();
+        }
+
+        public double getMean() {
+            double sum = 0.0;
+            for (int i = 0; i < mySize; i++) {
+                sum += mySamples[i];
+            }
+            return sum / mySize;
+        }
+
+        /**
+         * ms
+         */
+        public double getMedian() {
+            return this.getPercentile(0.5);
+        }
+
+        /**
+         * ms
+         */
+        public double getMin() {
+            return this.getPercentile(0.0);
+        }
+
+        /**
+         * ms, linear interpolation between the closest ranks
+         *
+         * @param fraction [0,1]
+         */
+        public double getPercentile(final double fraction) {
+
+            if (mySize == 0) {
+                return Double.NaN;
+            }
+
+            double[] sorted = Arrays.copyOf(mySamples, mySize);
+            Arrays.sort(sorted);
+
+            double rank = fraction * (mySize - 1);
+            int lower = (int) Math.floor(rank);
+            int upper = (int) Math.ceil(rank);
+
+            return sorted[lower] + (rank - lower) * (sorted[upper] - sorted[lower]);
+        }
+
+        /**
+         * A copy of the sampled times (ms)
+         */
+        public double[] getSamples() {
+            return Arrays.copyOf(mySamples, mySize);
+        }
+
+        public double getStandardDeviation() {
+
+            if (mySize < 2) {
+                return Double.NaN;
+            }
+
+            double mean = this.getMean();
+
+            double sum = 0.0;
+            for (int i = 0; i < mySize; i++) {
+                double diff = mySamples[i] - mean;
+                sum += diff * diff;
+            }
+
+            return Math.sqrt(sum / (mySize - 1));
+        }
+
+        public boolean isStable() {
+
+            if (mySize < myMinSamples) {
+                return false;
+            }
+
+            if (mySize >= myMaxSamples) {
+                return true;
+            }
+
+            return myRule.isStable(this, myTolerance);
+        }
+
+        public int size() {
+            return mySize;
+        }
+
+        /**
+         * Keeps track of the {@link #fastest}, and flags it if the results differ
+         */
+        private void compare(final TimedResult<Result> another) {
+
+            Result anotherR = another.result;
+            CalendarDateDuration anotherD = another.duration;
 
             if (fastest != null) {
 
@@ -305,22 +792,14 @@ public abstract class AbstractBenchmark {
             }
         }
 
-        public boolean isStable() {
-
-            int size = all.size();
-
-            if (size < 3) {
-                return false;
-            }
-
-            if (size >= 20) {
-                return true;
+        /**
+         * @param time ms
+         */
+        private void sample(final double time) {
+            if (mySize == mySamples.length) {
+                mySamples = Arrays.copyOf(mySamples, 2 * mySize);
             }
-
-            double duration1 = all.get(size - 1).duration.toDurationInMillis();
-            double duration2 = all.get(size - 2).duration.toDurationInMillis();
-
-            return ResultsSet.isSimilar(duration1, duration2, myHalfRelativeTimeError);
+            mySamples[mySize++] = time;
         }
 
     }
@@ -422,13 +901,53 @@ public abstract class AbstractBenchmark {
 
     protected static void doBenchmark(final Set<ModelSolverPair> allWork, final Configuration configuration) {
 
-        ProcessingService masterProcessor = ProcessingService.newInstance("benchmark");
-        ExternalProcessExecutor slaveExecutor = ExternalProcessExecutor.newInstance();
-
         Map<ModelSolverPair, ResultsSet> totResults = new ConcurrentHashMap<>();
         Map<ModelSolverPair, FailReason> totReasons = new ConcurrentHashMap<>();
         Map<String, ModelSize> modDim = new ConcurrentHashMap<>();
 
+        if (!configuration.sweeps.isEmpty()) {
+            Set<String> models = new HashSet<>();
+            for (ModelSolverPair pair : allWork) {
+                models.add(pair.model);
+            }
+            for (String sweep : configuration.sweeps) {
+                for (String contender : ParameterSweep.expand(sweep)) {
+                    for (String model : models) {
+                        allWork.add(new ModelSolverPair(model, contender));
+                    }
+                }
+            }
+        }
+
+        if (!configuration.versions.isEmpty()) {
+            Set<ModelSolverPair> versioned = new HashSet<>();
+            for (ModelSolverPair pair : allWork) {
+                if (Contender.isOjAlgo(pair.solver) && Contender.version(pair.solver) == null) {
+                    for (String version : configuration.versions) {
+                        versioned.add(new ModelSolverPair(pair.model, Contender.of(pair.solver, version)));
+                    }
+                }
+            }
+            allWork.addAll(versioned);
+        }
+
+        if (!configuration.profiles.isEmpty()) {
+            if (configuration.corpus == null) {
+                BasicLogger.error("Can't select profiles {} without a corpus index - running all models", configuration.profiles);
+            } else {
+                allWork.removeIf(pair -> !configuration.isSelected(pair.model));
+                BasicLogger.debug("Profiles {}: {} model/solver pairs", configuration.profiles, allWork.size());
+            }
+        }
+
+        if (configuration.corpus != null) {
+            // Known sizes from the start, so that the scheduler can predict runtimes
+            for (String model : configuration.corpus.models()) {
+                CorpusIndex.Entry entry = configuration.corpus.get(model);
+                modDim.put(model, new ModelSize(entry.nbExpressions, entry.nbVariables));
+            }
+        }
+
         int iterations = 0;
         Set<ModelSolverPair> iterDone = ConcurrentHashMap.newKeySet();
 
@@ -436,29 +955,64 @@ public abstract class AbstractBenchmark {
         BasicLogger.debug("Environment: {}", OjAlgoUtils.ENVIRONMENT);
         BasicLogger.debug();
 
-        do {
+        if (configuration.throughput) {
+            AbstractBenchmark.doThroughput(allWork, configuration);
+            return;
+        }
 
-            iterations++;
-            iterDone.clear();
+        if (configuration.minimumHeap) {
+            MinimumHeap.discover(allWork, configuration);
+            return;
+        }
 
-            BasicLogger.debug();
-            BasicLogger.debug("Iteration {} with {} model/solver pairs remaining {}", iterations, allWork.size(), Instant.now());
-            BasicLogger.debug("-----------------------------------------------------------------------------");
+        if (configuration.resume) {
+            allWork.removeAll(ResultsJournal.replay(configuration.journal, configuration, allWork, totResults, totReasons, modDim));
+        }
 
-            masterProcessor.process(allWork, configuration.parallelism,
-                    modelSolverPair -> AbstractBenchmark.doOnePair(configuration, slaveExecutor, totResults, totReasons, modDim, iterDone, modelSolverPair));
+        if (configuration.recordings != null) {
+            try {
+                Files.createDirectories(Path.of(configuration.recordings));
+            } catch (IOException cause) {
+                throw new RuntimeException(cause);
+            }
+        }
+
+        Scheduler scheduler = new Scheduler(configuration, totResults, totReasons, modDim);
+        if (configuration.history != null) {
+            scheduler.learn(configuration.history, allWork);
+        }
+
+        int parallelism = configuration.parallelism.getAsInt();
+
+        try (WorkerPool workers = new WorkerPool(configuration.maxTasksPerWorker, Collections.emptyList(), parallelism, configuration.pinned);
+                ResultsJournal journal = ResultsJournal.open(configuration.journal, configuration.resume)) {
 
-            allWork.removeAll(iterDone);
+            while (allWork.size() > 0) {
 
-        } while (allWork.size() > 0);
+                iterations++;
+                iterDone.clear();
+
+                BasicLogger.debug();
+                BasicLogger.debug("Iteration {} with {} model/solver pairs remaining {}", iterations, allWork.size(), Instant.now());
+                BasicLogger.debug("-----------------------------------------------------------------------------");
+
+                scheduler.process(allWork, parallelism,
+                        modelSolverPair -> AbstractBenchmark.doOnePair(configuration, workers, journal, totResults, totReasons, modDim, iterDone,
+                                modelSolverPair));
+
+                allWork.removeAll(iterDone);
+            }
+        }
 
         Map<ModelSolverPair, ResultsSet> sortedResults = new TreeMap<>(totResults);
+        Map<ModelSolverPair, Double> solveTimes = new TreeMap<>();
 
         try (TextLineWriter writer = TextLineWriter.of("./src/main/resources/benchmark_output.csv")) {
 
             CSVLineBuilder csv = writer.newCSVLineBuilder(ASCII.HT);
 
-            csv.line("Model", "Solver", "Time", "nbVars", "nbExpr");
+            csv.line("Model", "Solver", "Time", "nbVars", "nbExpr", "Median", "P10", "P90", "CV", "Samples", "Allocated", "CPUTime", "GCs", "GCTime",
+                    "PeakHeap", "MaxHeap", "Parse", "Simplify", "Build", "Solve", "Map", "ReSolves", "ColdFirst", "Cold", "Warm");
 
             BasicLogger.debug();
             BasicLogger.debug("Final Results");
@@ -466,7 +1020,8 @@ public abstract class AbstractBenchmark {
             for (Entry<ModelSolverPair, ResultsSet> entry : sortedResults.entrySet()) {
 
                 ModelSolverPair work = entry.getKey();
-                TimedResult<Result> result = entry.getValue().fastest;
+                ResultsSet resultsSet = entry.getValue();
+                TimedResult<Result> result = resultsSet.fastest;
 
                 String model = work.model;
                 String solver = work.solver;
@@ -484,65 +1039,248 @@ public abstract class AbstractBenchmark {
                 if (configuration.refeenceSolver != null) {
                     ModelSolverPair referenceModelSolverPair = new ModelSolverPair(model, configuration.refeenceSolver);
                     ResultsSet referenceResultsSet = sortedResults.get(referenceModelSolverPair);
-                    referenceResult = referenceResultsSet != null ? referenceResultsSet.fastest.result : null;
+                    if (referenceResultsSet != null && !totReasons.containsKey(referenceModelSolverPair)) {
+                        referenceResult = referenceResultsSet.fastest.result;
+                    }
                 }
 
-                if (expectedValue != null || referenceResult != null && referenceResult.getState().isOptimal()) {
+                boolean accepted;
+                FailReason reason;
+
+                if (configuration.isValueChecked() && (expectedValue != null || referenceResult != null && referenceResult.getState().isOptimal())) {
 
                     double referenceValue = expectedValue != null ? expectedValue.doubleValue() : referenceResult.getValue();
 
-                    if (state.isOptimal() && !ACCURACY.isDifferent(referenceValue, value)) {
-                        BasicLogger.debugColumns(WIDTH, model, solver, state, duration);
-                        csv.line(model, solver, duration.toDurationInNanos(), nbVars, nbExpr);
-                    } else {
-                        BasicLogger.debugColumns(WIDTH, model, solver, Optimisation.State.FAILED, totReasons.getOrDefault(work, FailReason.WRONG));
-                        csv.line(model, solver, "", nbVars, nbExpr);
-                    }
+                    accepted = state.isOptimal() && !ACCURACY.isDifferent(referenceValue, value);
+                    reason = FailReason.WRONG;
+
+                } else {
+
+                    accepted = configuration.isAccepted(state);
+                    reason = FailReason.TIMEOUT;
+                }
 
-                } else if (state.isOptimal()) {
+                if (totReasons.containsKey(work)) {
+                    // Failed at some point, e.g. ABANDONED (racing) after some accepted samples
+                    accepted = false;
+                    reason = totReasons.get(work);
+                }
+
+                List<Object> row = new ArrayList<>();
+                row.add(model);
+                row.add(solver);
+
+                if (accepted) {
                     BasicLogger.debugColumns(WIDTH, model, solver, state, duration);
-                    csv.line(model, solver, duration.toDurationInNanos(), nbVars, nbExpr);
+                    row.add(duration.toDurationInNanos());
+                    solveTimes.put(work, Double.valueOf(duration.toDurationInNanos() / 1_000_000.0));
                 } else {
-                    BasicLogger.debugColumns(WIDTH, model, solver, Optimisation.State.FAILED, totReasons.getOrDefault(work, FailReason.TIMEOUT));
-                    csv.line(model, solver, "", nbVars, nbExpr);
+                    BasicLogger.debugColumns(WIDTH, model, solver, Optimisation.State.FAILED, totReasons.getOrDefault(work, reason));
+                    row.add("");
                 }
+
+                row.add(nbVars);
+                row.add(nbExpr);
+
+                if (accepted) {
+                    row.add(AbstractBenchmark.toNanos(resultsSet.getMedian()));
+                    row.add(AbstractBenchmark.toNanos(resultsSet.getPercentile(0.1)));
+                    row.add(AbstractBenchmark.toNanos(resultsSet.getPercentile(0.9)));
+                    row.add(resultsSet.size() > 1 ? resultsSet.getCoefficientOfVariation() : "");
+                } else {
+                    row.add("");
+                    row.add("");
+                    row.add("");
+                    row.add("");
+                }
+                row.add(resultsSet.size());
+
+                ForkedTask.Usage usage = resultsSet.usage;
+                if (usage != null) {
+                    row.add(usage.allocatedBytes >= 0L ? usage.allocatedBytes : "");
+                    row.add(usage.cpuTime >= 0L ? usage.cpuTime : "");
+                    row.add(usage.gcCount);
+                    row.add(usage.gcTime);
+                    row.add(usage.peakHeap);
+                    row.add(usage.maxHeap >= 0L ? usage.maxHeap : "");
+                } else {
+                    row.add("");
+                    row.add("");
+                    row.add("");
+                    row.add("");
+                    row.add("");
+                    row.add("");
+                }
+
+                ForkedTask.Phases phases = resultsSet.phases;
+                if (phases != null) {
+                    row.add(AbstractBenchmark.toNanosOrBlank(phases.parse));
+                    row.add(AbstractBenchmark.toNanosOrBlank(phases.simplify));
+                    row.add(AbstractBenchmark.toNanosOrBlank(phases.build));
+                    row.add(AbstractBenchmark.toNanosOrBlank(phases.solve));
+                    row.add(AbstractBenchmark.toNanosOrBlank(phases.map));
+                } else {
+                    row.add("");
+                    row.add("");
+                    row.add("");
+                    row.add("");
+                    row.add("");
+                }
+
+                ForkedTask.ReSolves reSolves = resultsSet.reSolves;
+                if (reSolves != null) {
+                    row.add(reSolves.count);
+                    row.add(reSolves.coldFirst);
+                    row.add(AbstractBenchmark.toNanos(reSolves.cold));
+                    row.add(AbstractBenchmark.toNanos(reSolves.warm));
+                } else {
+                    row.add("");
+                    row.add("");
+                    row.add("");
+                    row.add("");
+                }
+
+                csv.line(row.toArray());
             }
 
         } catch (IOException cause) {
             throw new RuntimeException(cause);
         }
 
+        Leaderboard.write("./src/main/resources/benchmark_leaderboard.csv", "./src/main/resources/benchmark_profiles.csv", configuration,
+                sortedResults.keySet(), solveTimes);
+
+        if (configuration.reSolves > 0) {
+            AbstractBenchmark.summariseReSolves(sortedResults);
+        }
+
+        ParameterSweep.report("./src/main/resources/benchmark_sweep.csv", configuration, sortedResults.keySet(), solveTimes);
+
+        if (configuration.corpus != null) {
+            ScalingReport.write("./src/main/resources/benchmark_scaling.csv", configuration.corpus, solveTimes);
+        }
+
+        if (configuration.recordings != null) {
+            FlightRecordings.review("./src/main/resources/benchmark_jfr.csv", configuration, sortedResults, totReasons);
+        }
+
+    }
+
+    /**
+     * Throughput mode, see {@link ForkedTask.Throughput}. Every pair gets its own, fresh, worker JVM and the
+     * pairs are run one at a time, so that they don't compete for the CPUs.
+     */
+    static void doThroughput(final Set<ModelSolverPair> allWork, final Configuration configuration) {
+
+        int nbSteps = 1 + 2 * ForkedTask.concurrencies(Runtime.getRuntime().availableProcessors()).length;
+        long timeout = configuration.maxWaitTime + 2L * nbSteps * configuration.throughputTime;
+
+        Map<ModelSolverPair, ForkedTask.Throughput[]> results = new TreeMap<>();
+
+        BasicLogger.debug("Throughput of {} model/solver pairs, {}ms per step", allWork.size(), configuration.throughputTime);
+        BasicLogger.debug("=====================================================================");
+        BasicLogger.debugColumns(WIDTH, "Model", "Solver", "Threads", "Solves/s", "P50", "P99");
+
+        try (WorkerPool workers = new WorkerPool(1)) {
+
+            for (ModelSolverPair pair : new TreeSet<>(allWork)) {
+
+                ForkedTask.Request request = configuration.request(pair, timeout);
+                request.throughput = configuration.throughputTime;
+
+                try {
+
+                    ForkedTask.ReturnValue returnValue = workers.execute(request, timeout);
+
+                    if (returnValue == null || returnValue.throughput == null) {
+                        BasicLogger.debugColumns(WIDTH, pair.model, pair.solver, FAILED.result.getState(), FailReason.FAILED);
+                        continue;
+                    }
+
+                    results.put(pair, returnValue.throughput);
+
+                    for (ForkedTask.Throughput step : returnValue.throughput) {
+                        BasicLogger.debugColumns(WIDTH, pair.model, pair.solver, (step.virtual ? "virtual x" : "platform x") + step.concurrency,
+                                step.solvesPerSecond, step.p50, step.p99);
+                    }
+
+                } catch (TimeoutException cause) {
+                    BasicLogger.debugColumns(WIDTH, pair.model, pair.solver, FAILED.result.getState(), FailReason.TIMEOUT);
+                } catch (Exception cause) {
+                    BasicLogger.error("Error working with {}!", pair);
+                    BasicLogger.debugColumns(WIDTH, pair.model, pair.solver, FAILED.result.getState(), FailReason.FAILED);
+                }
+            }
+        }
+
+        try (TextLineWriter writer = TextLineWriter.of("./src/main/resources/benchmark_throughput.csv")) {
+
+            CSVLineBuilder csv = writer.newCSVLineBuilder(ASCII.HT);
+
+            csv.line("Model", "Solver", "Threads", "Concurrency", "Solves", "Failed", "SolvesPerSecond", "P50", "P99", "Max");
+
+            for (Entry<ModelSolverPair, ForkedTask.Throughput[]> entry : results.entrySet()) {
+                for (ForkedTask.Throughput step : entry.getValue()) {
+                    csv.line(entry.getKey().model, entry.getKey().solver, step.virtual ? "virtual" : "platform", step.concurrency, step.solves, step.failed,
+                            step.solvesPerSecond, AbstractBenchmark.toNanosOrBlank(step.p50), AbstractBenchmark.toNanosOrBlank(step.p99),
+                            AbstractBenchmark.toNanosOrBlank(step.max));
+                }
+            }
+
+        } catch (IOException cause) {
+            throw new RuntimeException(cause);
+        }
     }
 
-    static void doOnePair(final Configuration configuration, final ExternalProcessExecutor executor, final Map<ModelSolverPair, ResultsSet> totResults,
+    static void doOnePair(final Configuration configuration, final WorkerPool workers, final ResultsJournal journal,
+            final Map<ModelSolverPair, ResultsSet> totResults,
             final Map<ModelSolverPair, FailReason> totReasons, final Map<String, ModelSize> modDim, final Set<ModelSolverPair> iterDone,
             final ModelSolverPair modelSolverPair) {
 
-        String path = configuration.path(modelSolverPair.model);
+        BigDecimal expectedValue = configuration.isValueChecked() ? configuration.values.get(modelSolverPair.model) : null;
+
+        long timeLimit = configuration.timeLimit(modelSolverPair, totResults);
 
-        BigDecimal expectedValue = configuration.values.get(modelSolverPair.model);
+        ResultsSet previous = totResults.get(modelSolverPair);
+        if (timeLimit < configuration.maxWaitTime && previous != null && previous.fastest != null
+                && previous.fastest.duration.toDurationInMillis() > timeLimit) {
+
+            // Racing, and already known to be too slow
+
+            BasicLogger.debugColumns(WIDTH, modelSolverPair.model, modelSolverPair.solver, FAILED.result.getState(), FailReason.ABANDONED);
+            totReasons.put(modelSolverPair, FailReason.ABANDONED);
+            journal.done(modelSolverPair, FailReason.ABANDONED);
+            iterDone.add(modelSolverPair);
+            return;
+        }
 
-        Future<ForkedTask.ReturnValue> future = null;
         try {
 
-            future = executor.execute(ForkedTask.DESCRIPTOR, path, modelSolverPair.solver, configuration.maxWaitTime);
+            ForkedTask.Request request = configuration.request(modelSolverPair, timeLimit);
+            if (configuration.recordings != null) {
+                request.recording = FlightRecordings.path(configuration.recordings, modelSolverPair).toAbsolutePath().toString();
+            }
 
-            ReturnValue subResults = future.get(configuration.maxWaitTime, TimeUnit.MILLISECONDS);
+            // The (racing) time limit is for the solving - starting the worker and loading the model get the full time
+            ReturnValue subResults = workers.execute(request, configuration.maxWaitTime, timeLimit);
 
             modDim.computeIfAbsent(modelSolverPair.model, k -> new ModelSize(subResults.nbExpressions, subResults.nbVariables));
 
-            ResultsSet mainResults = totResults.computeIfAbsent(modelSolverPair, k -> new ResultsSet());
+            ResultsSet mainResults = totResults.computeIfAbsent(modelSolverPair, k -> new ResultsSet(configuration));
 
             if (subResults.result != null) {
 
                 // Have a result
 
+                journal.sample(modelSolverPair, subResults);
+
                 TimedResult<Result> fastest = mainResults.add(subResults);
 
-                if (!fastest.result.getState().isOptimal()) {
+                if (!configuration.isAccepted(fastest.result.getState())) {
 
                     BasicLogger.debugColumns(WIDTH, modelSolverPair.model, modelSolverPair.solver, fastest.result.getState(), FailReason.UNSTABLE);
                     totReasons.put(modelSolverPair, FailReason.UNSTABLE);
+                    journal.done(modelSolverPair, FailReason.UNSTABLE);
                     iterDone.add(modelSolverPair);
 
                 } else if (expectedValue != null && ACCURACY.isDifferent(expectedValue.doubleValue(), fastest.result.getValue())) {
@@ -550,12 +1288,14 @@ public abstract class AbstractBenchmark {
                     BasicLogger.debugColumns(WIDTH, modelSolverPair.model, modelSolverPair.solver, FailReason.WRONG, fastest.result.getValue(),
                             "!= " + expectedValue);
                     totReasons.put(modelSolverPair, FailReason.WRONG);
+                    journal.done(modelSolverPair, FailReason.WRONG);
                     iterDone.add(modelSolverPair);
 
                 } else if (mainResults.isStable()) {
 
                     BasicLogger.debugColumns(WIDTH, modelSolverPair.model, modelSolverPair.solver, "Time stable", mainResults.fastest.duration,
                             mainResults.fastest.result.getValue());
+                    journal.done(modelSolverPair, null);
                     iterDone.add(modelSolverPair);
                 }
 
@@ -567,56 +1307,170 @@ public abstract class AbstractBenchmark {
 
                 BasicLogger.debugColumns(WIDTH, modelSolverPair.model, modelSolverPair.solver, FAILED.result.getState(), FailReason.TIMEOUT);
                 totReasons.put(modelSolverPair, FailReason.TIMEOUT);
+                journal.done(modelSolverPair, FailReason.TIMEOUT);
                 iterDone.add(modelSolverPair);
             }
 
         } catch (TimeoutException timeout) {
 
-            if (future != null) {
-                try {
-                    future.cancel(true);
-                } catch (Exception ignore) {
-                    // ignore
-                }
-            }
+            // The worker pool has already killed the worker JVM
 
-            ResultsSet mainResults = totResults.computeIfAbsent(modelSolverPair, k -> new ResultsSet());
+            FailReason reason = timeLimit < configuration.maxWaitTime ? FailReason.ABANDONED : FailReason.TIMEOUT;
+
+            ResultsSet mainResults = totResults.computeIfAbsent(modelSolverPair, k -> new ResultsSet(configuration));
             mainResults.add(FAILED);
 
-            BasicLogger.debugColumns(WIDTH, modelSolverPair.model, modelSolverPair.solver, FAILED.result.getState(), FailReason.TIMEOUT);
-            totReasons.put(modelSolverPair, FailReason.TIMEOUT);
+            BasicLogger.debugColumns(WIDTH, modelSolverPair.model, modelSolverPair.solver, FAILED.result.getState(), reason);
+            totReasons.put(modelSolverPair, reason);
+            journal.done(modelSolverPair, reason);
             iterDone.add(modelSolverPair);
 
         } catch (Exception cause) {
 
-            if (future != null) {
-                try {
-                    future.cancel(true);
-                } catch (Exception ignore) {
-                    // ignore
-                }
-            }
-
             BasicLogger.error("Error working with {}!", modelSolverPair);
 
-            ResultsSet mainResults = totResults.computeIfAbsent(modelSolverPair, k -> new ResultsSet());
+            ResultsSet mainResults = totResults.computeIfAbsent(modelSolverPair, k -> new ResultsSet(configuration));
             mainResults.add(FAILED);
 
             BasicLogger.debugColumns(WIDTH, modelSolverPair.model, modelSolverPair.solver, FAILED.result.getState(), FailReason.FAILED);
             totReasons.put(modelSolverPair, FailReason.FAILED);
+            journal.done(modelSolverPair, FailReason.FAILED);
             iterDone.add(modelSolverPair);
         }
     }
 
+    /**
+     * Per contender, the geometric mean of the cold and warm re-solve (median) times, and of the warm/cold
+     * ratio, over the models where both are known - and the share of the rounds where the cold solve came
+     * first
+     */
+    static void summariseReSolves(final Map<ModelSolverPair, ResultsSet> results) {
+
+        // solver -> sum of log(cold), log(warm), count, cold first rounds and rounds
+        Map<String, double[]> sums = new TreeMap<>();
+
+        for (Entry<ModelSolverPair, ResultsSet> entry : results.entrySet()) {
+            ForkedTask.ReSolves reSolves = entry.getValue().reSolves;
+            if (reSolves != null && reSolves.cold > 0.0 && reSolves.warm > 0.0) {
+                double[] sum = sums.computeIfAbsent(entry.getKey().solver, k -> new double[5]);
+                sum[0] += Math.log(reSolves.cold);
+                sum[1] += Math.log(reSolves.warm);
+                sum[2]++;
+                sum[3] += reSolves.coldFirst;
+                sum[4] += reSolves.count;
+            }
+        }
+
+        BasicLogger.debug();
+        BasicLogger.debug("Warm vs Cold Re-solves (geometric mean ms)");
+        BasicLogger.debug("=====================================================================");
+        BasicLogger.debugColumns(WIDTH, "Solver", "Models", "Cold", "Warm", "Warm/Cold", "Cold first");
+        for (Entry<String, double[]> entry : sums.entrySet()) {
+            double[] sum = entry.getValue();
+            double cold = Math.exp(sum[0] / sum[2]);
+            double warm = Math.exp(sum[1] / sum[2]);
+            BasicLogger.debugColumns(WIDTH, entry.getKey(), (int) sum[2], cold, warm, warm / cold, sum[3] / sum[4]);
+        }
+    }
+
+    /**
+     * ms to ns
+     */
+    static long toNanos(final double millis) {
+        return Math.round(millis * 1_000_000.0);
+    }
+
+    static Object toNanosOrBlank(final double millis) {
+        return Double.isNaN(millis) ? "" : AbstractBenchmark.toNanos(millis);
+    }
+
     static TimedResult<Result> meassure(final ExpressionsBasedModel model) {
-        return Stopwatch.meassure(() -> AbstractBenchmark.solve(model));
+        return AbstractBenchmark.meassure(model, model.getOptimisationSense(), null);
+    }
+
+    /**
+     * @param usage Receives the allocation/GC activity of the solve (may be null)
+     */
+    static TimedResult<Result> meassure(final ExpressionsBasedModel model, final Optimisation.Sense sense, final Consumer<ForkedTask.Usage> usage) {
+
+        ForkedTask.Usage baseline = usage != null ? ForkedTask.Usage.begin() : null;
+
+        TimedResult<Result> retVal = Stopwatch.meassure(() -> AbstractBenchmark.solve(model, sense));
+
+        if (usage != null) {
+            usage.accept(baseline.end());
+        }
+
+        return retVal;
+    }
+
+    /**
+     * Parse a model file found on the classpath. Files ending with ".gz" are decompressed, and ".mps.gz" files
+     * are streamed through {@link MPSReader}. Solve the model with the returned sense.
+     */
+    static MPSReader.Parsed parse(final String modelFilePath) {
+
+        if (MPSReader.isStreamed(modelFilePath)) {
+            return MPSReader.read(modelFilePath);
+        }
+
+        try (InputStream input = AbstractBenchmark.open(modelFilePath)) {
+            return new MPSReader.Parsed(ExpressionsBasedModel.parse(input, FileFormat.MPS));
+        } catch (IOException cause) {
+            throw new RuntimeException(cause);
+        }
+    }
+
+    static InputStream open(final String modelFilePath) throws IOException {
+
+        InputStream input = AbstractBenchmark.class.getResourceAsStream(modelFilePath);
+
+        if (input == null) {
+            throw new IOException("No such model: " + modelFilePath);
+        }
+
+        if (modelFilePath.endsWith(".gz")) {
+            return new GZIPInputStream(input, 1 << 16);
+        } else {
+            return input;
+        }
+    }
+
+    /**
+     * The named contender's integration (regardless of ojAlgo version), or null
+     */
+    static ExpressionsBasedModel.Integration<?> integration(final String contender) {
+        ExpressionsBasedModel.Integration<?> integration = INTEGRATIONS.get(Contender.base(contender));
+        if (integration == null && ParameterSweep.isSweep(contender)) {
+            integration = ParameterSweep.integration(contender);
+        }
+        return integration;
+    }
+
+    /**
+     * Make the named contender's integration the only one registered. With no (known) integration the
+     * models are solved using ojAlgo's built-in solvers.
+     */
+    static void register(final String contender) {
+        ExpressionsBasedModel.clearIntegrations();
+        ExpressionsBasedModel.Integration<?> integration = AbstractBenchmark.integration(contender);
+        if (integration != null) {
+            ExpressionsBasedModel.addIntegration(integration);
+        }
     }
 
     static Optimisation.Result solve(final ExpressionsBasedModel model) {
+        return AbstractBenchmark.solve(model, model.getOptimisationSense());
+    }
+
+    /**
+     * @param sense As specified in the model file, null means minimise
+     */
+    static Optimisation.Result solve(final ExpressionsBasedModel model, final Optimisation.Sense sense) {
 
         Optimisation.Result result = null;
 
-        boolean maximisation = model.getOptimisationSense() == Optimisation.Sense.MAX;
+        boolean maximisation = sense == Optimisation.Sense.MAX;
 
         if (maximisation) {
             result = model.maximise();
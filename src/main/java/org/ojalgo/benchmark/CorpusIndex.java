@@ -0,0 +1,319 @@
+/*
+ * Copyright 1997-2025 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.benchmark;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.ojalgo.concurrent.Parallelism;
+import org.ojalgo.concurrent.ParallelismSupplier;
+import org.ojalgo.concurrent.ProcessingService;
+import org.ojalgo.netio.ASCII;
+import org.ojalgo.netio.BasicLogger;
+import org.ojalgo.optimisation.Expression;
+import org.ojalgo.optimisation.ExpressionsBasedModel;
+import org.ojalgo.optimisation.Variable;
+
+/**
+ * Size statistics for every model in a corpus (Netlib, Maros-Meszaros, MIPLIB...), kept on disk so that
+ * selecting the work set doesn't require parsing every model file. Models not yet in the index (or whose
+ * file has changed size) are parsed, in parallel, the first time the index is asked for. The statistics are
+ * those of the parsed model - before any simplification.
+ * <p>
+ * Compressed corpora (MIPLIB) contain models with millions of non-zeros. They are read with the
+ * {@link MPSReader}, and the number of models parsed at the same time is limited by the heap size (one per
+ * {@link #HEAP_PER_COMPRESSED} bytes), so that indexing doesn't run out of memory before any work starts.
+ */
+public final class CorpusIndex {
+
+    public static final class Entry {
+
+        public final int nbConstraints;
+        public final int nbExpressions;
+        public final int nbIntegers;
+        public final int nbNonZeros;
+        /**
+         * Number of quadratic factors (in the objective and constraints)
+         */
+        public final int nbQuadratic;
+        public final int nbVariables;
+
+        /**
+         * The size of the model file - to detect changes
+         */
+        final long length;
+
+        Entry(final long length, final int nbVariables, final int nbConstraints, final int nbExpressions, final int nbIntegers, final int nbNonZeros,
+                final int nbQuadratic) {
+            super();
+            this.length = length;
+            this.nbVariables = nbVariables;
+            this.nbConstraints = nbConstraints;
+            this.nbExpressions = nbExpressions;
+            this.nbIntegers = nbIntegers;
+            this.nbNonZeros = nbNonZeros;
+            this.nbQuadratic = nbQuadratic;
+        }
+
+        /**
+         * The larger of the number of variables and constraints
+         */
+        public int getDimension() {
+            return Math.max(nbVariables, nbConstraints);
+        }
+
+        /**
+         * Linear non-zeros plus quadratic factors
+         */
+        public long getNonZeros() {
+            return (long) nbNonZeros + nbQuadratic;
+        }
+
+        public Profile getProfile() {
+            return Profile.of(this);
+        }
+
+        public boolean isInteger() {
+            return nbIntegers > 0;
+        }
+
+        public boolean isQuadratic() {
+            return nbQuadratic > 0;
+        }
+
+    }
+
+    /**
+     * Size classes. A model belongs to the smallest profile whose dimension and non-zeros limits it is within.
+     */
+    public enum Profile {
+
+        TINY(100, 1_000L), SMALL(1_000, 10_000L), MEDIUM(10_000, 100_000L), LARGE(100_000, 1_000_000L), HUGE(Integer.MAX_VALUE, Long.MAX_VALUE);
+
+        public static Profile of(final Entry entry) {
+            for (Profile profile : Profile.values()) {
+                if (entry.getDimension() <= profile.maxDimension && entry.getNonZeros() <= profile.maxNonZeros) {
+                    return profile;
+                }
+            }
+            return HUGE;
+        }
+
+        /**
+         * Comma separated profile names, case insensitive
+         */
+        public static Set<Profile> parse(final String profiles) {
+            Set<Profile> retVal = EnumSet.noneOf(Profile.class);
+            for (String name : profiles.split(",")) {
+                if (!name.isBlank()) {
+                    retVal.add(Profile.valueOf(name.trim().toUpperCase()));
+                }
+            }
+            return retVal;
+        }
+
+        public final int maxDimension;
+        public final long maxNonZeros;
+
+        Profile(final int maxDimension, final long maxNonZeros) {
+            this.maxDimension = maxDimension;
+            this.maxNonZeros = maxNonZeros;
+        }
+
+    }
+
+    /**
+     * Heap to allow for each compressed model parsed at the same time
+     */
+    static final long HEAP_PER_COMPRESSED = 1L << 30;
+
+    static final String[] COLUMNS = { "Model", "Length", "nbVars", "nbConstr", "nbExpr", "nbInt", "nbNonZeros", "nbQuadratic" };
+
+    /**
+     * Index the models, at the paths pathPrefix + model + pathSuffix on the classpath.
+     *
+     * @param corpus The index is stored as "index-<corpus>.tsv" in the {@link ModelCache#DIRECTORY}
+     */
+    public static CorpusIndex of(final String corpus, final String pathPrefix, final String pathSuffix, final Collection<String> models) {
+
+        Path file = ModelCache.DIRECTORY.resolve("index-" + corpus + ".tsv");
+
+        Map<String, Entry> entries = new ConcurrentHashMap<>();
+        CorpusIndex.read(file, entries);
+
+        List<String> missing = new ArrayList<>();
+        for (String model : models) {
+            Entry entry = entries.get(model);
+            if (entry == null || entry.length != CorpusIndex.length(pathPrefix + model + pathSuffix)) {
+                missing.add(model);
+            }
+        }
+
+        if (missing.size() > 0) {
+
+            ParallelismSupplier parallelism = Parallelism.CORES;
+            if (pathSuffix.endsWith(".gz")) {
+                int limit = (int) Math.max(1L, Runtime.getRuntime().maxMemory() / HEAP_PER_COMPRESSED);
+                parallelism = () -> Math.min(Parallelism.CORES.getAsInt(), limit);
+            }
+
+            BasicLogger.debug("Indexing {} {} models, {} at a time", missing.size(), corpus, parallelism.getAsInt());
+
+            ProcessingService.newInstance("corpus-index").process(missing, parallelism,
+                    model -> entries.put(model, CorpusIndex.describe(pathPrefix + model + pathSuffix)));
+
+            CorpusIndex.write(file, entries);
+        }
+
+        Map<String, Entry> selected = new TreeMap<>();
+        for (String model : models) {
+            selected.put(model, entries.get(model));
+        }
+
+        return new CorpusIndex(selected);
+    }
+
+    static Entry describe(final String modelFilePath) {
+
+        ExpressionsBasedModel model = AbstractBenchmark.parse(modelFilePath).model;
+
+        int nbIntegers = 0;
+        // The objective may be variable weights rather than an expression (see MPSReader)
+        int nbNonZeros = 0;
+        for (Variable variable : model.getVariables()) {
+            if (variable.isInteger()) {
+                nbIntegers++;
+            }
+            if (variable.isObjective()) {
+                nbNonZeros++;
+            }
+        }
+
+        int nbQuadratic = 0;
+        for (Expression expression : model.getExpressions()) {
+            nbNonZeros += expression.getLinearKeySet().size();
+            nbQuadratic += expression.getQuadraticKeySet().size();
+        }
+
+        ExpressionsBasedModel.Description description = model.describe();
+
+        return new Entry(CorpusIndex.length(modelFilePath), description.nbVariables, description.countConstraints(), model.countExpressions(), nbIntegers,
+                nbNonZeros, nbQuadratic);
+    }
+
+    private static long length(final String modelFilePath) {
+        URL resource = AbstractBenchmark.class.getResource(modelFilePath);
+        if (resource == null) {
+            throw new RuntimeException(new IOException("No such model: " + modelFilePath));
+        }
+        try {
+            return resource.openConnection().getContentLengthLong();
+        } catch (IOException cause) {
+            throw new RuntimeException(cause);
+        }
+    }
+
+    private static void read(final Path file, final Map<String, Entry> entries) {
+
+        if (!Files.exists(file)) {
+            return;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+
+            String line = reader.readLine(); // header
+            while ((line = reader.readLine()) != null) {
+
+                String[] fields = line.split(String.valueOf(ASCII.HT), -1);
+                if (fields.length < COLUMNS.length) {
+                    continue;
+                }
+
+                entries.put(fields[0], new Entry(Long.parseLong(fields[1]), Integer.parseInt(fields[2]), Integer.parseInt(fields[3]),
+                        Integer.parseInt(fields[4]), Integer.parseInt(fields[5]), Integer.parseInt(fields[6]), Integer.parseInt(fields[7])));
+            }
+
+        } catch (IOException | RuntimeException cause) {
+            BasicLogger.error("Ignoring corrupt corpus index {}: {}", file, cause);
+            entries.clear();
+        }
+    }
+
+    private static void write(final Path file, final Map<String, Entry> entries) {
+        try {
+
+            Files.createDirectories(file.getParent());
+
+            Path temporary = Files.createTempFile(file.getParent(), "index", ".tmp");
+
+            try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                writer.write(String.join(String.valueOf(ASCII.HT), COLUMNS));
+                writer.newLine();
+                for (Map.Entry<String, Entry> mapEntry : new TreeMap<>(entries).entrySet()) {
+                    Entry entry = mapEntry.getValue();
+                    writer.write(String.join(String.valueOf(ASCII.HT), mapEntry.getKey(), Long.toString(entry.length), Integer.toString(entry.nbVariables),
+                            Integer.toString(entry.nbConstraints), Integer.toString(entry.nbExpressions), Integer.toString(entry.nbIntegers),
+                            Integer.toString(entry.nbNonZeros), Integer.toString(entry.nbQuadratic)));
+                    writer.newLine();
+                }
+            }
+
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        } catch (IOException cause) {
+            BasicLogger.error("Failed to write corpus index {}: {}", file, cause);
+        }
+    }
+
+    private final Map<String, Entry> myEntries;
+
+    private CorpusIndex(final Map<String, Entry> entries) {
+        super();
+        myEntries = entries;
+    }
+
+    public Entry get(final String model) {
+        return myEntries.get(model);
+    }
+
+    /**
+     * The indexed models, sorted by name
+     */
+    public Set<String> models() {
+        return myEntries.keySet();
+    }
+
+}
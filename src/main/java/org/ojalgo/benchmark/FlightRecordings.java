@@ -0,0 +1,313 @@
+/*
+ * Copyright 1997-2025 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import org.ojalgo.benchmark.AbstractBenchmark.Configuration;
+import org.ojalgo.benchmark.AbstractBenchmark.FailReason;
+import org.ojalgo.benchmark.AbstractBenchmark.ModelSolverPair;
+import org.ojalgo.benchmark.AbstractBenchmark.ResultsSet;
+import org.ojalgo.netio.ASCII;
+import org.ojalgo.netio.BasicLogger;
+import org.ojalgo.netio.TextLineWriter;
+import org.ojalgo.netio.TextLineWriter.CSVLineBuilder;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Java Flight Recordings of the worker executions. When enabled, see {@link Configuration#recordings}, every
+ * {@link ForkedTask.Request} is recorded (the JDK's "profile" settings) to a file per model/solver pair. At the
+ * end of the run only the recordings of pairs that failed, or were much slower than the reference solver, are
+ * kept - and summarised: hot methods (execution samples), allocation sites (allocation samples) and lock
+ * contention (monitor enter). The kept .jfr files open in JDK Mission Control, or convert to flame graphs.
+ * <p>
+ * A worker that is killed, because of a timeout, can't write its recording. Therefore the recording is also
+ * dumped shortly before the master's deadline.
+ */
+final class FlightRecordings {
+
+    static final class Summary {
+
+        /**
+         * ns blocked, per frame
+         */
+        final Map<String, Long> contention = new LinkedHashMap<>();
+        /**
+         * bytes (sampled weight), per frame
+         */
+        final Map<String, Long> allocation = new LinkedHashMap<>();
+        /**
+         * number of samples, per top frame
+         */
+        final Map<String, Long> execution = new LinkedHashMap<>();
+
+    }
+
+    /**
+     * The number of frames listed, per kind
+     */
+    static final int TOP = 10;
+
+    static final String SETTINGS = "profile";
+
+    private static final Pattern SKIPPED = Pattern.compile("(java|javax|jdk|sun|com\\.sun)\\.");
+
+    private static final ScheduledExecutorService DEADLINE = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "recording-deadline");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static Path path(final String directory, final ModelSolverPair pair) {
+        String name = (pair.model + "_" + pair.solver).replaceAll("[^A-Za-z0-9._-]", "_");
+        return Path.of(directory, name + ".jfr");
+    }
+
+    /**
+     * Worker side: execute the task while recording to the request's {@link ForkedTask.Request#recording}
+     * file.
+     */
+    static <T> T record(final ForkedTask.Request request, final Supplier<T> task) {
+
+        Path destination = Path.of(request.recording);
+
+        try (Recording recording = new Recording(jdk.jfr.Configuration.getConfiguration(SETTINGS))) {
+
+            Files.deleteIfExists(destination);
+
+            recording.setName(destination.getFileName().toString());
+            recording.setToDisk(true);
+            recording.setDestination(destination);
+            recording.start();
+
+            Future<?> dump = DEADLINE.schedule(() -> {
+                try {
+                    recording.dump(destination);
+                } catch (IOException cause) {
+                    BasicLogger.error("Failed to dump the recording to {}: {}", destination, cause);
+                }
+            }, request.maxWaitTime * 9L / 10L, TimeUnit.MILLISECONDS);
+
+            try {
+                return task.get();
+            } finally {
+                dump.cancel(false);
+                recording.stop();
+            }
+
+        } catch (IOException | ParseException cause) {
+            throw new RuntimeException(cause);
+        }
+    }
+
+    /**
+     * Master side, at the end of a run: delete the recordings of pairs that did fine, summarise the others.
+     */
+    static void review(final String path, final Configuration configuration, final Map<ModelSolverPair, ResultsSet> results,
+            final Map<ModelSolverPair, FailReason> reasons) {
+
+        BasicLogger.debug();
+        BasicLogger.debug("Flight Recordings");
+        BasicLogger.debug("=====================================================================");
+
+        try (TextLineWriter writer = TextLineWriter.of(path)) {
+
+            CSVLineBuilder csv = writer.newCSVLineBuilder(ASCII.HT);
+
+            csv.line("Model", "Solver", "Reason", "Recording", "Kind", "Frame", "Amount", "Share");
+
+            for (Entry<ModelSolverPair, ResultsSet> entry : results.entrySet()) {
+
+                ModelSolverPair pair = entry.getKey();
+                Path file = FlightRecordings.path(configuration.recordings, pair);
+                if (!Files.exists(file)) {
+                    continue;
+                }
+
+                String reason = FlightRecordings.reason(configuration, pair, results, reasons);
+                if (reason == null) {
+                    Files.delete(file);
+                    continue;
+                }
+
+                Summary summary;
+                try {
+                    summary = FlightRecordings.summarise(file);
+                } catch (IOException cause) {
+                    // Incomplete, the worker was killed before it was dumped
+                    BasicLogger.debugColumns(AbstractBenchmark.WIDTH, pair.model, pair.solver, reason, "Unreadable " + file);
+                    continue;
+                }
+
+                BasicLogger.debugColumns(AbstractBenchmark.WIDTH, pair.model, pair.solver, reason, file);
+
+                FlightRecordings.write(csv, pair, reason, file, "CPU", summary.execution);
+                FlightRecordings.write(csv, pair, reason, file, "Allocation", summary.allocation);
+                FlightRecordings.write(csv, pair, reason, file, "Lock", summary.contention);
+            }
+
+        } catch (IOException cause) {
+            throw new RuntimeException(cause);
+        }
+    }
+
+    static Summary summarise(final Path file) throws IOException {
+
+        Summary summary = new Summary();
+
+        try (RecordingFile recording = new RecordingFile(file)) {
+            while (recording.hasMoreEvents()) {
+
+                RecordedEvent event = recording.readEvent();
+
+                if (FlightRecordings.isRecorder(event)) {
+                    continue;
+                }
+
+                switch (event.getEventType().getName()) {
+                case "jdk.ExecutionSample":
+                    summary.execution.merge(FlightRecordings.frame(event, false), 1L, Long::sum);
+                    break;
+                case "jdk.ObjectAllocationSample":
+                    summary.allocation.merge(FlightRecordings.frame(event, true), event.getLong("weight"), Long::sum);
+                    break;
+                case "jdk.JavaMonitorEnter":
+                    summary.contention.merge(event.getClass("monitorClass").getName() + " @ " + FlightRecordings.frame(event, true),
+                            event.getDuration().toNanos(), Long::sum);
+                    break;
+                default:
+                    break;
+                }
+            }
+        }
+
+        return summary;
+    }
+
+    /**
+     * @param application Skip JDK frames (java.*, javax.*, jdk.*, sun.*, com.sun.*) to get to the code that
+     *        caused the event
+     */
+    private static String frame(final RecordedEvent event, final boolean application) {
+
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "?";
+        }
+
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        RecordedFrame selected = frames.get(0);
+        if (application) {
+            for (RecordedFrame frame : frames) {
+                String type = frame.getMethod().getType().getName();
+                if (!SKIPPED.matcher(type).lookingAt()) {
+                    selected = frame;
+                    break;
+                }
+            }
+        }
+
+        return selected.getMethod().getType().getName() + "." + selected.getMethod().getName() + ":" + selected.getLineNumber();
+    }
+
+    /**
+     * Events caused by the flight recorder itself (starting the recording)
+     */
+    private static boolean isRecorder(final RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace != null) {
+            for (RecordedFrame frame : stackTrace.getFrames()) {
+                if (frame.getMethod().getType().getName().startsWith("jdk.jfr.")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return Why the recording should be kept, or null if it shouldn't
+     */
+    private static String reason(final Configuration configuration, final ModelSolverPair pair, final Map<ModelSolverPair, ResultsSet> results,
+            final Map<ModelSolverPair, FailReason> reasons) {
+
+        FailReason failed = reasons.get(pair);
+        if (failed != null) {
+            return failed.name();
+        }
+
+        if (configuration.refeenceSolver == null || configuration.refeenceSolver.equals(pair.solver)) {
+            return null;
+        }
+
+        ResultsSet solver = results.get(pair);
+        ResultsSet reference = results.get(new ModelSolverPair(pair.model, configuration.refeenceSolver));
+        if (solver == null || solver.fastest == null || solver.fastest == AbstractBenchmark.FAILED || reference == null || reference.fastest == null
+                || reference.fastest == AbstractBenchmark.FAILED) {
+            return null;
+        }
+
+        double ratio = (double) solver.fastest.duration.toDurationInNanos() / reference.fastest.duration.toDurationInNanos();
+
+        return ratio > configuration.recordingThreshold ? "SLOW x" + Math.round(ratio) : null;
+    }
+
+    private static void write(final CSVLineBuilder csv, final ModelSolverPair pair, final String reason, final Path file, final String kind,
+            final Map<String, Long> amounts) {
+
+        double total = 0.0;
+        for (Long amount : amounts.values()) {
+            total += amount;
+        }
+
+        List<Entry<String, Long>> sorted = new ArrayList<>(amounts.entrySet());
+        sorted.sort(Entry.<String, Long> comparingByValue().reversed());
+
+        for (int i = 0, limit = Math.min(TOP, sorted.size()); i < limit; i++) {
+            Entry<String, Long> entry = sorted.get(i);
+            csv.line(pair.model, pair.solver, reason, file, kind, entry.getKey(), entry.getValue(), entry.getValue() / total);
+            if (i < 3) {
+                BasicLogger.debug("\t{} {} {}%", kind, entry.getKey(), Math.round(100.0 * entry.getValue() / total));
+            }
+        }
+    }
+
+}
@@ -1,19 +1,114 @@
 package org.ojalgo.benchmark;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.PrintStream;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.ojalgo.benchmark.AbstractBenchmark.ResultsSet;
-import org.ojalgo.concurrent.MethodDescriptor;
+import org.ojalgo.netio.BasicLogger;
 import org.ojalgo.optimisation.ExpressionsBasedModel;
-import org.ojalgo.optimisation.ExpressionsBasedModel.FileFormat;
-import org.ojalgo.optimisation.ExpressionsBasedModel.Integration;
+import org.ojalgo.optimisation.Optimisation;
 import org.ojalgo.optimisation.Optimisation.Result;
+import org.ojalgo.optimisation.Variable;
 import org.ojalgo.type.Stopwatch.TimedResult;
 
+/**
+ * The work done in a forked worker JVM. {@link #main(String[])} is the worker entry point. It reads
+ * {@link Request}s from stdin and writes {@link ReturnValue}s to stdout until stdin is closed. See
+ * {@link WorkerPool} for the master side. Anything printed (System.out is redirected) or logged ends up on
+ * stderr.
+ */
 public abstract class ForkedTask {
 
+    public static final class Request implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * ms
+         */
+        public final long maxWaitTime;
+        public final String modelFilePath;
+        public final String solver;
+
+        /**
+         * The model is solved (sampled) at least this many times...
+         */
+        int minSamples = 3;
+        /**
+         * ...and at most this many times, regardless of the {@link #stoppingRule}. With 1 (and
+         * {@link #minSamples} 1) the model is solved exactly once.
+         */
+        int maxSamples = 20;
+        /**
+         * Also solve the model once more, step by step, to time each phase - see {@link Phases}
+         */
+        boolean phases = false;
+        /**
+         * Solve the LP relaxation (of a MIP)
+         */
+        boolean relax = false;
+        /**
+         * Warm-start mode: the number of perturb and re-solve rounds (0 means off), see {@link ReSolves}
+         */
+        int reSolves = 0;
+        /**
+         * Seeds the {@link Perturbation}s
+         */
+        long seed = 0L;
+        /**
+         * ms, throughput mode when > 0: the time spent at each concurrency level, see {@link Throughput}
+         */
+        long throughput = 0L;
+        /**
+         * Java Flight Recording file to write, null means no recording, see {@link FlightRecordings}
+         */
+        String recording = null;
+        /**
+         * When to stop sampling, between {@link #minSamples} and {@link #maxSamples}
+         */
+        AbstractBenchmark.StoppingRule stoppingRule = AbstractBenchmark.StoppingRule.CONFIDENCE_INTERVAL;
+        /**
+         * Relative tolerance used by the {@link #stoppingRule}
+         */
+        double stoppingTolerance = 0.05;
+        /**
+         * ms, {@link org.ojalgo.optimisation.Optimisation.Options#time_abort} (when > 0)
+         */
+        long timeAbort = 0L;
+        /**
+         * ms, {@link org.ojalgo.optimisation.Optimisation.Options#time_suffice} (when > 0)
+         */
+        long timeSuffice = 0L;
+
+        Request(final String modelFilePath, final String solver, final long maxWaitTime) {
+            super();
+            this.modelFilePath = modelFilePath;
+            this.solver = solver;
+            this.maxWaitTime = maxWaitTime;
+        }
+
+    }
+
     public static final class ReturnValue implements Serializable {
 
         private static final long serialVersionUID = 1L;
@@ -22,65 +117,391 @@ public abstract class ForkedTask {
         public final int nbVariables;
 
         public final String result;
+        /**
+         * ms, the fastest of the {@link #samples}
+         */
         public final double time;
+        /**
+         * ms, every timed solve (in the order they were made), null means only {@link #time} is known
+         */
+        public final double[] samples;
+        /**
+         * Memory behaviour of the solve that produced {@link #time}, may be null
+         */
+        public final Usage usage;
+        /**
+         * Where the time goes, may be null
+         */
+        public final Phases phases;
+        /**
+         * Cold vs warm re-solve times, may be null
+         */
+        public final ReSolves reSolves;
+        /**
+         * Throughput mode results, one per concurrency level and kind of thread, may be null
+         */
+        public final Throughput[] throughput;
 
         ReturnValue(final String result, final double time, final int nbVariables, final int nbExpressions) {
+            this(result, time, nbVariables, nbExpressions, null, null, null);
+        }
+
+        ReturnValue(final String result, final double time, final int nbVariables, final int nbExpressions, final Usage usage, final Phases phases,
+                final ReSolves reSolves) {
+            this(result, time, nbVariables, nbExpressions, usage, phases, reSolves, null, null);
+        }
+
+        ReturnValue(final String result, final double time, final int nbVariables, final int nbExpressions, final Usage usage, final Phases phases,
+                final ReSolves reSolves, final Throughput[] throughput, final double[] samples) {
             super();
             this.result = result;
             this.time = time;
+            this.samples = samples;
             this.nbVariables = nbVariables;
             this.nbExpressions = nbExpressions;
+            this.usage = usage;
+            this.phases = phases;
+            this.reSolves = reSolves;
+            this.throughput = throughput;
         }
 
     }
 
-    static final MethodDescriptor DESCRIPTOR = MethodDescriptor.of(ForkedTask.class, "execute", String.class, String.class, long.class);
+    /**
+     * Throughput mode. A number of concurrent clients, on platform or virtual threads, each repeatedly solving
+     * its own copy of the same model (copying is not included in the latencies, but is in the wall time).
+     */
+    public static final class Throughput implements Serializable {
 
-    public static ReturnValue execute(final String modelFilePath, final String contenderSolverName, final long maxWaitTime) {
+        private static final long serialVersionUID = 1L;
 
-        long instanceTime = Long.MAX_VALUE;
-        long remainingTime = maxWaitTime / 2L;
+        public final int concurrency;
+        public final int failed;
+        /**
+         * ms, solve latency percentiles
+         */
+        public final double max;
+        public final double p50;
+        public final double p99;
+        public final int solves;
+        public final double solvesPerSecond;
+        public final boolean virtual;
 
-        ExpressionsBasedModel.clearIntegrations();
-        Integration<?> integration = AbstractBenchmark.INTEGRATIONS.get(contenderSolverName);
-        if (integration != null) {
-            ExpressionsBasedModel.addIntegration(integration);
+        Throughput(final boolean virtual, final int concurrency, final int solves, final int failed, final double solvesPerSecond, final double p50,
+                final double p99, final double max) {
+            super();
+            this.virtual = virtual;
+            this.concurrency = concurrency;
+            this.solves = solves;
+            this.failed = failed;
+            this.solvesPerSecond = solvesPerSecond;
+            this.p50 = p50;
+            this.p99 = p99;
+            this.max = max;
         }
 
-        ResultsSet resultsSet = new ResultsSet();
+    }
 
-        int nbVariables = 0;
-        int nbExpressions = 0;
+    /**
+     * One throughput mode client - solves until the deadline
+     */
+    static final class Client implements Callable<Client> {
 
-        try (InputStream input = AbstractBenchmark.class.getResourceAsStream(modelFilePath)) {
+        int failed = 0;
+        /**
+         * ms
+         */
+        double[] latencies = new double[64];
+        int size = 0;
 
-            ExpressionsBasedModel parsedMPS = ExpressionsBasedModel.parse(input, FileFormat.MPS);
+        private final long myDeadline;
+        private final ExpressionsBasedModel myModel;
+        private final Optimisation.Sense mySense;
 
-            nbVariables = parsedMPS.countVariables();
-            nbExpressions = parsedMPS.countExpressions();
+        Client(final ExpressionsBasedModel model, final Optimisation.Sense sense, final long deadline) {
+            super();
+            myModel = model;
+            mySense = sense;
+            myDeadline = deadline;
+        }
 
-            ExpressionsBasedModel simplified = parsedMPS.simplify();
+        @Override
+        public Client call() {
 
-            do {
+            while (System.nanoTime() < myDeadline) {
 
-                TimedResult<Result> meassured = AbstractBenchmark.meassure(simplified);
+                ExpressionsBasedModel copy = myModel.copy();
 
-                instanceTime = meassured.duration.toDurationInMillis();
-                remainingTime -= instanceTime;
+                long start = System.nanoTime();
+                Optimisation.Result result = AbstractBenchmark.solve(copy, mySense);
+                long end = System.nanoTime();
 
-                resultsSet.add(meassured);
+                if (size == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, 2 * size);
+                }
+                latencies[size++] = (end - start) / 1_000_000.0;
 
-            } while (instanceTime < remainingTime && !resultsSet.isStable());
+                if (!result.getState().isFeasible()) {
+                    failed++;
+                }
+            }
 
-        } catch (IOException cause) {
-            throw new RuntimeException(cause);
+            return this;
+        }
+
+    }
+
+    /**
+     * Warm-start mode. The model is changed slightly ({@link Perturbation}) and then solved twice: cold, as a
+     * fresh copy without any previous solution, and warm, the same model instance that was solved before the
+     * change - letting the solver reuse whatever it can. Median times (ms) over the rounds. Which of the two
+     * is solved first is (seeded) random per round, so that neither systematically gets a warmer JIT, caches or
+     * heap.
+     */
+    public static final class ReSolves implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        public final double cold;
+        /**
+         * In how many of the rounds the cold solve came first
+         */
+        public final int coldFirst;
+        public final int count;
+        public final double warm;
+
+        ReSolves(final int count, final int coldFirst, final double cold, final double warm) {
+            super();
+            this.count = count;
+            this.coldFirst = coldFirst;
+            this.cold = cold;
+            this.warm = warm;
+        }
+
+    }
+
+    /**
+     * Time spent (ms) in each phase of getting from a model file to a solution. NaN when not known.
+     * <p>
+     * Parse and simplify were timed when the (cached) model was first created. Build (the
+     * {@link org.ojalgo.optimisation.Optimisation.Integration#build(Object)} step, translating the model to the
+     * solver), solve (the solver's own work) and map (translating the solver's result back to the model) are
+     * timed from one extra, separate, solve - the measured time is always that of the ordinary
+     * minimise/maximise call. Only when {@link Request#phases} is set.
+     */
+    public static final class Phases implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        public final double build;
+        public final double map;
+        public final double parse;
+        public final double simplify;
+        public final double solve;
+
+        Phases(final double parse, final double simplify, final double build, final double solve, final double map) {
+            super();
+            this.parse = parse;
+            this.simplify = simplify;
+            this.build = build;
+            this.solve = solve;
+            this.map = map;
+        }
+
+    }
+
+    /**
+     * Allocation and GC activity during a single solve. Obtain a baseline with {@link #begin()} before the
+     * solve, and the deltas with {@link #end()} after.
+     */
+    public static final class Usage implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Bytes allocated by all threads (including solver worker threads that have since terminated)
+         */
+        public final long allocatedBytes;
+        /**
+         * ns, CPU time used by the (worker) process - all its threads, including JIT and GC
+         */
+        public final long cpuTime;
+        public final long gcCount;
+        /**
+         * ms
+         */
+        public final long gcTime;
+        /**
+         * Bytes, the max heap of the (worker) JVM that did the solve - as set by -Xmx, or the JVM's default. -1
+         * if not known.
+         */
+        public final long maxHeap;
+        /**
+         * Bytes, the sum of the heap memory pools' peak usage. The pools peak at different times (eden fills up
+         * and is emptied into the old generation), so this is an upper bound on the actual peak heap usage.
+         */
+        public final long peakHeap;
+
+        Usage(final long allocatedBytes, final long cpuTime, final long gcCount, final long gcTime, final long peakHeap, final long maxHeap) {
+            super();
+            this.allocatedBytes = allocatedBytes;
+            this.cpuTime = cpuTime;
+            this.gcCount = gcCount;
+            this.gcTime = gcTime;
+            this.peakHeap = peakHeap;
+            this.maxHeap = maxHeap;
+        }
+
+        static Usage begin() {
+
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) {
+                    pool.resetPeakUsage();
+                }
+            }
+
+            return Usage.snapshot(0L);
+        }
+
+        private static long allocated() {
+            if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads && threads.isThreadAllocatedMemoryEnabled()) {
+                return threads.getTotalThreadAllocatedBytes();
+            } else {
+                return -1L;
+            }
+        }
+
+        private static long cpuTime() {
+            if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os) {
+                return os.getProcessCpuTime();
+            } else {
+                return -1L;
+            }
+        }
+
+        private static Usage snapshot(final long peakHeap) {
+
+            long gcCount = 0L;
+            long gcTime = 0L;
+            for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                gcCount += Math.max(0L, collector.getCollectionCount());
+                gcTime += Math.max(0L, collector.getCollectionTime());
+            }
+
+            return new Usage(Usage.allocated(), Usage.cpuTime(), gcCount, gcTime, peakHeap, Runtime.getRuntime().maxMemory());
+        }
+
+        /**
+         * @return The usage since this baseline was taken
+         */
+        Usage end() {
+
+            long peakHeap = 0L;
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) {
+                    peakHeap += pool.getPeakUsage().getUsed();
+                }
+            }
+
+            Usage now = Usage.snapshot(peakHeap);
+
+            long allocatedBytes = this.allocatedBytes >= 0L && now.allocatedBytes >= 0L ? now.allocatedBytes - this.allocatedBytes : -1L;
+
+            long cpuTime = this.cpuTime >= 0L && now.cpuTime >= 0L ? now.cpuTime - this.cpuTime : -1L;
+
+            return new Usage(allocatedBytes, cpuTime, now.gcCount - gcCount, now.gcTime - gcTime, peakHeap, now.maxHeap);
+        }
+
+    }
+
+    /**
+     * Sent by a worker JVM once the model is loaded, before the {@link ReturnValue}
+     */
+    static final String LOADED = "LOADED";
+
+    public static ReturnValue execute(final Request request) {
+        return ForkedTask.execute(request, () -> {});
+    }
+
+    /**
+     * @param loaded Called once the model is loaded, before it is solved
+     */
+    public static ReturnValue execute(final Request request, final Runnable loaded) {
+        if (request.recording != null) {
+            return FlightRecordings.record(request, () -> ForkedTask.doExecute(request, loaded));
+        } else {
+            return ForkedTask.doExecute(request, loaded);
+        }
+    }
+
+    static ReturnValue doExecute(final Request request, final Runnable loaded) {
+
+        long instanceTime = Long.MAX_VALUE;
+        long remainingTime = request.maxWaitTime / 2L;
+
+        AbstractBenchmark.register(request.solver);
+
+        ResultsSet resultsSet = new ResultsSet(request);
+        Usage[] usage = new Usage[1];
+        Usage fastestUsage = null;
+        double fastestTime = Double.POSITIVE_INFINITY;
+
+        ModelCache.Entry cached = ModelCache.load(request.modelFilePath, request.relax);
+
+        int nbVariables = cached.nbVariables;
+        int nbExpressions = cached.nbExpressions;
+
+        ExpressionsBasedModel simplified = cached.model;
+
+        if (request.timeAbort > 0L) {
+            simplified.options.time_abort = request.timeAbort;
         }
+        if (request.timeSuffice > 0L) {
+            simplified.options.time_suffice = request.timeSuffice;
+        }
+
+        loaded.run();
+
+        if (request.throughput > 0L) {
+            Optimisation.Result result = AbstractBenchmark.solve(simplified.copy(), cached.sense);
+            Throughput[] throughput = ForkedTask.throughput(simplified, cached.sense, request.throughput);
+            return new ReturnValue(result.toString(), throughput[0].p50, nbVariables, nbExpressions, null, null, null, throughput, null);
+        }
+
+        do {
+
+            TimedResult<Result> meassured = AbstractBenchmark.meassure(simplified, cached.sense, sample -> usage[0] = sample);
+
+            instanceTime = meassured.duration.toDurationInMillis();
+            remainingTime -= instanceTime;
+
+            if (meassured.duration.measure < fastestTime) {
+                fastestTime = meassured.duration.measure;
+                fastestUsage = usage[0];
+            }
+
+            resultsSet.add(meassured);
+
+        } while (instanceTime < remainingTime && !resultsSet.isStable());
 
         TimedResult<Result> fastest = resultsSet.fastest;
 
+        Phases phases = null;
+        if (fastest != null && request.phases && instanceTime < remainingTime) {
+            long start = System.nanoTime();
+            phases = ForkedTask.trace(request.solver, cached);
+            remainingTime -= (System.nanoTime() - start) / 1_000_000L;
+        }
+
+        ReSolves reSolves = null;
+        if (fastest != null && request.reSolves > 0 && instanceTime < remainingTime) {
+            reSolves = ForkedTask.reSolve(simplified, cached.sense, request.reSolves, request.seed, remainingTime);
+        }
+
         if (fastest != null) {
 
-            return new ReturnValue(fastest.result.toString(), fastest.duration.measure, nbVariables, nbExpressions);
+            return new ReturnValue(fastest.result.toString(), fastest.duration.measure, nbVariables, nbExpressions, fastestUsage, phases, reSolves, null,
+                    resultsSet.getSamples());
 
         } else {
 
@@ -88,4 +509,228 @@ public abstract class ForkedTask {
         }
     }
 
+    /**
+     * 1, 2, 4... up to the number of cores (always included)
+     */
+    public static int[] concurrencies(final int cores) {
+        int[] levels = new int[Integer.SIZE - Integer.numberOfLeadingZeros(Math.max(1, cores)) + 1];
+        int nbLevels = 0;
+        for (int level = 1; level < cores; level *= 2) {
+            levels[nbLevels++] = level;
+        }
+        levels[nbLevels++] = Math.max(1, cores);
+        return Arrays.copyOf(levels, nbLevels);
+    }
+
+    /**
+     * Throughput mode, see {@link Throughput}. After a warm-up, every concurrency level is run on platform
+     * threads and then on virtual threads.
+     *
+     * @param stepTime ms, at each concurrency level
+     */
+    static Throughput[] throughput(final ExpressionsBasedModel model, final Optimisation.Sense sense, final long stepTime) {
+
+        int[] concurrencies = ForkedTask.concurrencies(Runtime.getRuntime().availableProcessors());
+
+        ForkedTask.throughput(model, sense, false, 1, stepTime);
+
+        Throughput[] retVal = new Throughput[2 * concurrencies.length];
+        for (int i = 0; i < concurrencies.length; i++) {
+            retVal[i] = ForkedTask.throughput(model, sense, false, concurrencies[i], stepTime);
+        }
+        for (int i = 0; i < concurrencies.length; i++) {
+            retVal[concurrencies.length + i] = ForkedTask.throughput(model, sense, true, concurrencies[i], stepTime);
+        }
+        return retVal;
+    }
+
+    private static Throughput throughput(final ExpressionsBasedModel model, final Optimisation.Sense sense, final boolean virtual, final int concurrency,
+            final long stepTime) {
+
+        ExecutorService executor = virtual ? Executors.newVirtualThreadPerTaskExecutor() : Executors.newFixedThreadPool(concurrency);
+
+        try {
+
+            long start = System.nanoTime();
+            long deadline = start + stepTime * 1_000_000L;
+
+            List<Future<Client>> futures = new ArrayList<>();
+            for (int c = 0; c < concurrency; c++) {
+                futures.add(executor.submit(new Client(model, sense, deadline)));
+            }
+
+            int solves = 0;
+            int failed = 0;
+            double[] latencies = new double[0];
+            for (Future<Client> future : futures) {
+                Client client = future.get();
+                latencies = Arrays.copyOf(latencies, solves + client.size);
+                System.arraycopy(client.latencies, 0, latencies, solves, client.size);
+                solves += client.size;
+                failed += client.failed;
+            }
+
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+            if (solves == 0) {
+                return new Throughput(virtual, concurrency, 0, 0, 0.0, Double.NaN, Double.NaN, Double.NaN);
+            }
+
+            Arrays.sort(latencies);
+
+            return new Throughput(virtual, concurrency, solves, failed, solves / seconds, latencies[(solves - 1) / 2],
+                    latencies[(int) Math.ceil(0.99 * solves) - 1], latencies[solves - 1]);
+
+        } catch (InterruptedException | ExecutionException cause) {
+            throw new RuntimeException(cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Warm-start mode, see {@link ReSolves}. Stops early if the time budget runs out.
+     *
+     * @param budget ms
+     */
+    static ReSolves reSolve(final ExpressionsBasedModel model, final Optimisation.Sense sense, final int rounds, final long seed, final long budget) {
+
+        Perturbation perturbation = new Perturbation(seed);
+        // Separate from the perturbations, so every contender gets the same changes regardless
+        Random order = new Random(~seed);
+
+        long deadline = System.nanoTime() + budget * 1_000_000L;
+
+        double[] cold = new double[rounds];
+        double[] warm = new double[rounds];
+        int count = 0;
+        int coldFirst = 0;
+
+        while (count < rounds && System.nanoTime() < deadline && perturbation.apply(model)) {
+
+            ExpressionsBasedModel copy = model.copy();
+            for (Variable variable : copy.getVariables()) {
+                variable.setValue(null);
+            }
+
+            if (order.nextBoolean()) {
+
+                long start = System.nanoTime();
+                AbstractBenchmark.solve(copy, sense);
+                long coldAt = System.nanoTime();
+                AbstractBenchmark.solve(model, sense);
+                long warmAt = System.nanoTime();
+
+                cold[count] = (coldAt - start) / 1_000_000.0;
+                warm[count] = (warmAt - coldAt) / 1_000_000.0;
+                coldFirst++;
+
+            } else {
+
+                long start = System.nanoTime();
+                AbstractBenchmark.solve(model, sense);
+                long warmAt = System.nanoTime();
+                AbstractBenchmark.solve(copy, sense);
+                long coldAt = System.nanoTime();
+
+                warm[count] = (warmAt - start) / 1_000_000.0;
+                cold[count] = (coldAt - warmAt) / 1_000_000.0;
+            }
+
+            count++;
+        }
+
+        if (count == 0) {
+            return null;
+        }
+
+        Arrays.sort(cold, 0, count);
+        Arrays.sort(warm, 0, count);
+
+        return new ReSolves(count, coldFirst, cold[count / 2], warm[count / 2]);
+    }
+
+    /**
+     * Solve once more, step by step, timing each phase. Only possible when the contender's integration is
+     * known and capable of solving the model.
+     */
+    static Phases trace(final String solver, final ModelCache.Entry cached) {
+
+        ExpressionsBasedModel.Integration<?> integration = AbstractBenchmark.integration(solver);
+
+        if (integration != null && integration.isCapable(cached.model)) {
+            return ForkedTask.trace(integration, cached);
+        } else {
+            return new Phases(cached.parseTime, cached.simplifyTime, Double.NaN, Double.NaN, Double.NaN);
+        }
+    }
+
+    private static <S extends Optimisation.Solver> Phases trace(final ExpressionsBasedModel.Integration<S> integration, final ModelCache.Entry cached) {
+
+        // Already solved (minimise/maximise) when measured, so the model's optimisation sense is set
+        ExpressionsBasedModel model = cached.model;
+
+        long start = System.nanoTime();
+        S solver = integration.build(model);
+        long builtAt = System.nanoTime();
+        Optimisation.Result solution = solver.solve();
+        long solvedAt = System.nanoTime();
+        integration.toModelState(solution, model);
+        long mappedAt = System.nanoTime();
+
+        solver.dispose();
+
+        return new Phases(cached.parseTime, cached.simplifyTime, (builtAt - start) / 1_000_000.0, (solvedAt - builtAt) / 1_000_000.0,
+                (mappedAt - solvedAt) / 1_000_000.0);
+    }
+
+    /**
+     * Worker JVM entry point. Anything the solvers print to stdout is redirected to stderr, as stdout is the
+     * channel back to the master.
+     */
+    public static void main(final String[] args) throws IOException {
+
+        PrintStream channel = System.out;
+        System.setOut(System.err);
+
+        ObjectOutputStream responses = new ObjectOutputStream(new BufferedOutputStream(channel));
+        responses.flush();
+
+        ObjectInputStream requests = new ObjectInputStream(new BufferedInputStream(System.in));
+
+        // Lets the master start the clock on the solving, excluding JVM startup and model loading
+        Runnable loaded = () -> {
+            try {
+                responses.writeObject(LOADED);
+                responses.reset();
+                responses.flush();
+            } catch (IOException cause) {
+                throw new UncheckedIOException(cause);
+            }
+        };
+
+        for (;;) {
+
+            Request request;
+            try {
+                request = (Request) requests.readObject();
+            } catch (EOFException | ClassNotFoundException cause) {
+                // The master closed the channel (recycling this worker) or sent garbage
+                return;
+            }
+
+            Serializable response;
+            try {
+                response = ForkedTask.execute(request, loaded);
+            } catch (Throwable cause) {
+                BasicLogger.error("Failed to execute {} with {}: {}", request.modelFilePath, request.solver, cause);
+                response = cause.toString();
+            }
+
+            responses.writeObject(response);
+            responses.reset();
+            responses.flush();
+        }
+    }
+
 }
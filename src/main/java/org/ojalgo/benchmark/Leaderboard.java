@@ -0,0 +1,190 @@
+/*
+ * Copyright 1997-2025 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.ojalgo.benchmark.AbstractBenchmark.ModelSolverPair;
+import org.ojalgo.netio.ASCII;
+import org.ojalgo.netio.BasicLogger;
+import org.ojalgo.netio.TextLineWriter;
+import org.ojalgo.netio.TextLineWriter.CSVLineBuilder;
+
+/**
+ * Solver ranking, computed from the final results:
+ * <ul>
+ * <li>The shifted geometric mean of the solve times, exp(mean(log(t + shift))) - shift, where every model
+ * the solver didn't (correctly) solve is counted as {@link AbstractBenchmark.Configuration#maxWaitTime}.
+ * Also relative to the best solver.
+ * <li>The number of models solved.
+ * <li>Dolan-More performance profiles: for each solver, the fraction of models solved within tau times the
+ * best solver's time on that model. The profile file has one row per breakpoint of any solver's step
+ * function.
+ * </ul>
+ * Only models attempted by every solver are included.
+ */
+final class Leaderboard {
+
+    /**
+     * The shifted geometric mean
+     *
+     * @param times ms, +Inf when not solved
+     * @param penalty ms, used instead of +Inf
+     */
+    static double sgm(final double[] times, final double penalty, final double shift) {
+        double sumLog = 0.0;
+        for (double time : times) {
+            sumLog += Math.log((Double.isFinite(time) ? time : penalty) + shift);
+        }
+        return Math.exp(sumLog / times.length) - shift;
+    }
+
+    /**
+     * @param solveTimes ms, accepted (correct and within time) results only
+     */
+    static void write(final String leaderboardPath, final String profilesPath, final AbstractBenchmark.Configuration configuration,
+            final Set<ModelSolverPair> attempted, final Map<ModelSolverPair, Double> solveTimes) {
+
+        Set<String> solverSet = new TreeSet<>();
+        Set<String> modelSet = new TreeSet<>();
+        for (ModelSolverPair pair : attempted) {
+            solverSet.add(pair.solver);
+            modelSet.add(pair.model);
+        }
+        modelSet.removeIf(model -> solverSet.stream().anyMatch(solver -> !attempted.contains(new ModelSolverPair(model, solver))));
+
+        String[] solvers = solverSet.toArray(new String[0]);
+        String[] models = modelSet.toArray(new String[0]);
+
+        if (solvers.length == 0 || models.length == 0) {
+            return;
+        }
+
+        // ms, +Inf when not solved
+        double[][] times = new double[solvers.length][models.length];
+        double[] best = new double[models.length];
+        Arrays.fill(best, Double.POSITIVE_INFINITY);
+
+        for (int s = 0; s < solvers.length; s++) {
+            for (int m = 0; m < models.length; m++) {
+                Double time = solveTimes.get(new ModelSolverPair(models[m], solvers[s]));
+                times[s][m] = time != null ? time.doubleValue() : Double.POSITIVE_INFINITY;
+                best[m] = Math.min(best[m], times[s][m]);
+            }
+        }
+
+        double shift = configuration.shift;
+        double penalty = configuration.maxWaitTime;
+
+        int[] solved = new int[solvers.length];
+        double[] sgm = new double[solvers.length];
+        double bestSGM = Double.POSITIVE_INFINITY;
+
+        for (int s = 0; s < solvers.length; s++) {
+            for (int m = 0; m < models.length; m++) {
+                if (Double.isFinite(times[s][m])) {
+                    solved[s]++;
+                }
+            }
+            sgm[s] = Leaderboard.sgm(times[s], penalty, shift);
+            bestSGM = Math.min(bestSGM, sgm[s]);
+        }
+
+        BasicLogger.debug();
+        BasicLogger.debug("Leaderboard ({} models, shifted geometric mean ms, shift {})", models.length, shift);
+        BasicLogger.debug("=====================================================================");
+
+        Integer[] order = new Integer[solvers.length];
+        for (int s = 0; s < order.length; s++) {
+            order[s] = s;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(sgm[a], sgm[b]));
+
+        try (TextLineWriter writer = TextLineWriter.of(leaderboardPath)) {
+
+            CSVLineBuilder csv = writer.newCSVLineBuilder(ASCII.HT);
+
+            csv.line("Solver", "Solved", "Models", "SGM", "Relative");
+
+            for (int s : order) {
+                BasicLogger.debugColumns(AbstractBenchmark.WIDTH, solvers[s], solved[s] + "/" + models.length, sgm[s], sgm[s] / bestSGM);
+                csv.line(solvers[s], solved[s], models.length, sgm[s], sgm[s] / bestSGM);
+            }
+
+        } catch (IOException cause) {
+            throw new RuntimeException(cause);
+        }
+
+        // Performance ratios, sorted per solver
+
+        double[][] ratios = new double[solvers.length][models.length];
+        Set<Double> breakpoints = new TreeSet<>();
+        breakpoints.add(1.0);
+
+        for (int s = 0; s < solvers.length; s++) {
+            for (int m = 0; m < models.length; m++) {
+                ratios[s][m] = Double.isFinite(best[m]) ? times[s][m] / best[m] : Double.POSITIVE_INFINITY;
+                if (Double.isFinite(ratios[s][m])) {
+                    breakpoints.add(ratios[s][m]);
+                }
+            }
+            Arrays.sort(ratios[s]);
+        }
+
+        try (TextLineWriter writer = TextLineWriter.of(profilesPath)) {
+
+            CSVLineBuilder csv = writer.newCSVLineBuilder(ASCII.HT);
+
+            List<Object> header = new ArrayList<>();
+            header.add("Tau");
+            header.addAll(solverSet);
+            csv.line(header.toArray());
+
+            int[] within = new int[solvers.length];
+
+            for (double tau : breakpoints) {
+
+                List<Object> row = new ArrayList<>();
+                row.add(tau);
+
+                for (int s = 0; s < solvers.length; s++) {
+                    while (within[s] < models.length && ratios[s][within[s]] <= tau) {
+                        within[s]++;
+                    }
+                    row.add((double) within[s] / models.length);
+                }
+
+                csv.line(row.toArray());
+            }
+
+        } catch (IOException cause) {
+            throw new RuntimeException(cause);
+        }
+    }
+
+}
@@ -0,0 +1,683 @@
+/*
+ * Copyright 1997-2025 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+import org.ojalgo.optimisation.Expression;
+import org.ojalgo.optimisation.ExpressionsBasedModel;
+import org.ojalgo.optimisation.Optimisation;
+import org.ojalgo.optimisation.Variable;
+
+/**
+ * Streaming reader for MPS files containing LP or MIP models. It is used for the (gzipped) MIPLIB corpus -
+ * {@link AbstractBenchmark#parse(String)}, the {@link ModelCache} and the MIPLIB 2017 runs all read ".mps.gz"
+ * files with it - anything else is parsed by ojAlgo. The file is read, in one pass, from a buffered channel. Row and column names are interned, directly from the bytes, in an open
+ * addressing table, and the matrix entries are collected in primitive coordinate buffers. The
+ * {@link ExpressionsBasedModel} is built only when the whole file has been read.
+ * <p>
+ * Compared to {@link ExpressionsBasedModel#parse(InputStream, ExpressionsBasedModel.FileFormat)} the main
+ * differences are that the objective function is modelled as variable weights (not as an expression), and
+ * that a constant term in the objective (an RHS entry for the objective row) becomes a variable fixed at 1.
+ * Quadratic sections (QUADOBJ, QMATRIX...) and semi-continuous bounds are not supported.
+ * <p>
+ * The records are split on whitespace, as in free format MPS. Fixed format files are read correctly only if
+ * no name contains blanks (column positions are not used).
+ */
+public final class MPSReader {
+
+    /**
+     * The model and the optimisation sense (OBJSENSE) - the sense can't be set on a model built through the
+     * public API, so it's returned alongside.
+     */
+    public static final class Parsed {
+
+        public final ExpressionsBasedModel model;
+        /**
+         * null if not specified (minimise)
+         */
+        public final Optimisation.Sense sense;
+
+        /**
+         * For a model parsed by ojAlgo, that knows its own sense
+         */
+        Parsed(final ExpressionsBasedModel model) {
+            this(model, model.getOptimisationSense());
+        }
+
+        Parsed(final ExpressionsBasedModel model, final Optimisation.Sense sense) {
+            super();
+            this.model = model;
+            this.sense = sense;
+        }
+
+        public Optimisation.Result solve() {
+            return AbstractBenchmark.solve(model, sense);
+        }
+
+    }
+
+    /**
+     * Open addressing hash table mapping (byte sequence) names to consecutive indices
+     */
+    static final class NameTable {
+
+        private byte[][] myKeys = new byte[16][];
+        private String[] myNames = new String[16];
+        private int mySize = 0;
+        private int[] mySlots = MPSReader.newSlots(32);
+
+        /**
+         * @return The index of the name, or -1 if it's not in the table
+         */
+        int get(final byte[] bytes, final int from, final int to) {
+
+            int mask = mySlots.length - 1;
+
+            for (int s = MPSReader.hash(bytes, from, to) & mask;; s = s + 1 & mask) {
+                int index = mySlots[s];
+                if (index < 0) {
+                    return -1;
+                }
+                if (Arrays.equals(myKeys[index], 0, myKeys[index].length, bytes, from, to)) {
+                    return index;
+                }
+            }
+        }
+
+        String getName(final int index) {
+            return myNames[index];
+        }
+
+        /**
+         * @return The index of the name, adding it if necessary
+         */
+        int intern(final byte[] bytes, final int from, final int to) {
+
+            int existing = this.get(bytes, from, to);
+            if (existing >= 0) {
+                return existing;
+            }
+
+            if (mySize == myKeys.length) {
+                myKeys = Arrays.copyOf(myKeys, 2 * mySize);
+                myNames = Arrays.copyOf(myNames, 2 * mySize);
+            }
+            if (2 * (mySize + 1) > mySlots.length) {
+                this.rehash(2 * mySlots.length);
+            }
+
+            int index = mySize++;
+            myKeys[index] = Arrays.copyOfRange(bytes, from, to);
+            myNames[index] = new String(bytes, from, to - from, StandardCharsets.ISO_8859_1);
+
+            int mask = mySlots.length - 1;
+            int s = MPSReader.hash(bytes, from, to) & mask;
+            while (mySlots[s] >= 0) {
+                s = s + 1 & mask;
+            }
+            mySlots[s] = index;
+
+            return index;
+        }
+
+        int size() {
+            return mySize;
+        }
+
+        private void rehash(final int nbSlots) {
+            mySlots = MPSReader.newSlots(nbSlots);
+            int mask = nbSlots - 1;
+            for (int i = 0; i < mySize; i++) {
+                int s = MPSReader.hash(myKeys[i], 0, myKeys[i].length) & mask;
+                while (mySlots[s] >= 0) {
+                    s = s + 1 & mask;
+                }
+                mySlots[s] = i;
+            }
+        }
+
+    }
+
+    enum Section {
+        BOUNDS, COLUMNS, ENDATA, NAME, OBJSENSE, RANGES, RHS, ROWS;
+    }
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final byte[] MARKER = "'MARKER'".getBytes(StandardCharsets.ISO_8859_1);
+    private static final byte[] INTORG = "'INTORG'".getBytes(StandardCharsets.ISO_8859_1);
+    private static final byte[] INTEND = "'INTEND'".getBytes(StandardCharsets.ISO_8859_1);
+
+    /**
+     * Files that should be read with this reader rather than with ojAlgo's parser
+     */
+    static boolean isStreamed(final String modelFilePath) {
+        return modelFilePath.endsWith(".mps.gz");
+    }
+
+    /**
+     * Read a model file found on the classpath. Files ending with ".gz" are decompressed.
+     */
+    public static Parsed read(final String modelFilePath) {
+
+        InputStream input = AbstractBenchmark.class.getResourceAsStream(modelFilePath);
+        if (input == null) {
+            throw new RuntimeException(new IOException("No such model: " + modelFilePath));
+        }
+
+        try (ReadableByteChannel channel = modelFilePath.endsWith(".gz") ? Channels.newChannel(new GZIPInputStream(input, BUFFER_SIZE))
+                : Channels.newChannel(input)) {
+            return MPSReader.read(channel);
+        } catch (IOException cause) {
+            throw new RuntimeException(cause);
+        }
+    }
+
+    /**
+     * Read a model file. Files ending with ".gz" are decompressed.
+     */
+    public static Parsed read(final Path file) {
+        try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (file.getFileName().toString().endsWith(".gz")) {
+                return MPSReader.read(Channels.newChannel(new GZIPInputStream(Channels.newInputStream(fileChannel), BUFFER_SIZE)));
+            } else {
+                return MPSReader.read(fileChannel);
+            }
+        } catch (IOException cause) {
+            throw new RuntimeException(cause);
+        }
+    }
+
+    /**
+     * Read (uncompressed) MPS from the channel. The channel is not closed.
+     */
+    public static Parsed read(final ReadableByteChannel channel) throws IOException {
+
+        MPSReader reader = new MPSReader();
+
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        byte[] chunk = buffer.array();
+
+        byte[] line = new byte[256];
+        int length = 0;
+
+        while (channel.read(buffer) != -1) {
+
+            for (int i = 0, limit = buffer.position(); i < limit; i++) {
+                byte b = chunk[i];
+                if (b == '\n') {
+                    reader.line(line, length);
+                    length = 0;
+                } else if (b != '\r') {
+                    if (length == line.length) {
+                        line = Arrays.copyOf(line, 2 * length);
+                    }
+                    line[length++] = b;
+                }
+            }
+
+            buffer.clear();
+        }
+
+        if (length > 0) {
+            reader.line(line, length);
+        }
+
+        return new Parsed(reader.build(), reader.mySense);
+    }
+
+    static int hash(final byte[] bytes, final int from, final int to) {
+        int hash = 1;
+        for (int i = from; i < to; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        return hash ^ hash >>> 16;
+    }
+
+    static int[] newSlots(final int nbSlots) {
+        int[] slots = new int[nbSlots];
+        Arrays.fill(slots, -1);
+        return slots;
+    }
+
+    private static boolean matches(final byte[] bytes, final int from, final int to, final byte[] keyword) {
+        return Arrays.equals(bytes, from, to, keyword, 0, keyword.length);
+    }
+
+    private int myColumn = -1;
+    private final NameTable myColumns = new NameTable();
+    private double[] myCost = new double[16];
+    /**
+     * The lower bound was set explicitly in the BOUNDS section
+     */
+    private boolean[] myExplicitLowers = new boolean[16];
+    private int[] myEntryColumns = new int[1024];
+    private int[] myEntryRows = new int[1024];
+    private double[] myEntryValues = new double[1024];
+    private final NameTable myFreeRows = new NameTable();
+    private boolean myInteger = false;
+    private boolean[] myIntegers = new boolean[16];
+    private double[] myLowers = new double[16];
+    private int myNbEntries = 0;
+    private byte[] myObjectiveKey = null;
+    private double myObjectiveConstant = 0.0;
+    private double[] myRanges = new double[16];
+    private double[] myRHS = new double[16];
+    private final NameTable myRows = new NameTable();
+    private byte[] myRowTypes = new byte[16];
+    private Section mySection = null;
+    private Optimisation.Sense mySense = null;
+    private final int[] myTokenEnds = new int[8];
+    private final int[] myTokenStarts = new int[8];
+    private double[] myUppers = new double[16];
+
+    private MPSReader() {
+        super();
+    }
+
+    private void addColumn(final int index) {
+
+        if (index == myCost.length) {
+            int capacity = 2 * index;
+            myCost = Arrays.copyOf(myCost, capacity);
+            myExplicitLowers = Arrays.copyOf(myExplicitLowers, capacity);
+            myIntegers = Arrays.copyOf(myIntegers, capacity);
+            myLowers = Arrays.copyOf(myLowers, capacity);
+            myUppers = Arrays.copyOf(myUppers, capacity);
+        }
+
+        myIntegers[index] = myInteger;
+        myLowers[index] = 0.0;
+        myUppers[index] = Double.POSITIVE_INFINITY;
+    }
+
+    private void addEntry(final int row, final int column, final double value) {
+
+        if (myNbEntries == myEntryValues.length) {
+            int capacity = 2 * myNbEntries;
+            myEntryColumns = Arrays.copyOf(myEntryColumns, capacity);
+            myEntryRows = Arrays.copyOf(myEntryRows, capacity);
+            myEntryValues = Arrays.copyOf(myEntryValues, capacity);
+        }
+
+        myEntryRows[myNbEntries] = row;
+        myEntryColumns[myNbEntries] = column;
+        myEntryValues[myNbEntries] = value;
+        myNbEntries++;
+    }
+
+    private void addRow(final int index, final byte type) {
+
+        if (index == myRowTypes.length) {
+            int capacity = 2 * index;
+            myRowTypes = Arrays.copyOf(myRowTypes, capacity);
+            myRHS = Arrays.copyOf(myRHS, capacity);
+            myRanges = Arrays.copyOf(myRanges, capacity);
+        }
+
+        myRowTypes[index] = type;
+        myRHS[index] = 0.0;
+        myRanges[index] = Double.NaN;
+    }
+
+    private void bound(final byte[] line, final int nbTokens) throws IOException {
+
+        String type = this.token(line, 0);
+
+        boolean valued = !("FR".equals(type) || "MI".equals(type) || "PL".equals(type) || "BV".equals(type));
+
+        // The bound set name is optional
+        int c = 2;
+        if (nbTokens == 2 || valued && nbTokens == 3 || !valued && nbTokens == 3 && this.isColumn(line, 1) && !this.isColumn(line, 2)) {
+            c = 1;
+        }
+
+        int column = myColumns.get(line, myTokenStarts[c], myTokenEnds[c]);
+        if (column < 0) {
+            throw new IOException("Unknown column in BOUNDS: " + this.token(line, c));
+        }
+
+        double value = c + 1 < nbTokens ? this.number(line, c + 1) : Double.NaN;
+
+        if (!"UP".equals(type) && !"PL".equals(type) && !"UI".equals(type)) {
+            myExplicitLowers[column] = true;
+        }
+
+        switch (type) {
+        case "UP":
+            myUppers[column] = value;
+            // A negative upper bound implies a free lower bound - unless the lower bound was set explicitly
+            if (value < 0.0 && !myExplicitLowers[column]) {
+                myLowers[column] = Double.NEGATIVE_INFINITY;
+            }
+            break;
+        case "LO":
+            myLowers[column] = value;
+            break;
+        case "FX":
+            myLowers[column] = value;
+            myUppers[column] = value;
+            break;
+        case "FR":
+            myLowers[column] = Double.NEGATIVE_INFINITY;
+            myUppers[column] = Double.POSITIVE_INFINITY;
+            break;
+        case "MI":
+            myLowers[column] = Double.NEGATIVE_INFINITY;
+            break;
+        case "PL":
+            myUppers[column] = Double.POSITIVE_INFINITY;
+            break;
+        case "BV":
+            myIntegers[column] = true;
+            myLowers[column] = 0.0;
+            myUppers[column] = 1.0;
+            break;
+        case "LI":
+            myIntegers[column] = true;
+            myLowers[column] = value;
+            break;
+        case "UI":
+            myIntegers[column] = true;
+            myUppers[column] = value;
+            break;
+        default:
+            throw new IOException("Unsupported bound type: " + type);
+        }
+    }
+
+    private ExpressionsBasedModel build() {
+
+        ExpressionsBasedModel model = new ExpressionsBasedModel();
+
+        int nbColumns = myColumns.size();
+        for (int j = 0; j < nbColumns; j++) {
+
+            Variable variable = model.addVariable(myColumns.getName(j));
+
+            if (myIntegers[j]) {
+                variable.integer(true);
+            }
+            if (myLowers[j] != Double.NEGATIVE_INFINITY) {
+                variable.lower(myLowers[j]);
+            }
+            if (myUppers[j] != Double.POSITIVE_INFINITY) {
+                variable.upper(myUppers[j]);
+            }
+            if (myCost[j] != 0.0) {
+                variable.weight(myCost[j]);
+            }
+        }
+
+        if (myObjectiveConstant != 0.0) {
+            model.addVariable("OBJECTIVE_CONSTANT").level(1.0).weight(myObjectiveConstant);
+        }
+
+        int nbRows = myRows.size();
+        Expression[] expressions = new Expression[nbRows];
+        for (int i = 0; i < nbRows; i++) {
+
+            Expression expression = model.addExpression(myRows.getName(i));
+
+            double rhs = myRHS[i];
+            double range = Math.abs(myRanges[i]);
+            boolean ranged = !Double.isNaN(range);
+
+            switch (myRowTypes[i]) {
+            case 'E':
+                if (!ranged || range == 0.0) {
+                    expression.level(rhs);
+                } else if (myRanges[i] > 0.0) {
+                    expression.lower(rhs).upper(rhs + range);
+                } else {
+                    expression.lower(rhs - range).upper(rhs);
+                }
+                break;
+            case 'L':
+                expression.upper(rhs);
+                if (ranged) {
+                    expression.lower(rhs - range);
+                }
+                break;
+            default:
+                expression.lower(rhs);
+                if (ranged) {
+                    expression.upper(rhs + range);
+                }
+                break;
+            }
+
+            expressions[i] = expression;
+        }
+
+        for (int k = 0; k < myNbEntries; k++) {
+            expressions[myEntryRows[k]].set(myEntryColumns[k], myEntryValues[k]);
+        }
+
+        return model;
+    }
+
+    private void column(final byte[] line, final int nbTokens) throws IOException {
+
+        if (nbTokens >= 3 && MPSReader.matches(line, myTokenStarts[1], myTokenEnds[1], MARKER)) {
+            if (MPSReader.matches(line, myTokenStarts[2], myTokenEnds[2], INTORG)) {
+                myInteger = true;
+            } else if (MPSReader.matches(line, myTokenStarts[2], myTokenEnds[2], INTEND)) {
+                myInteger = false;
+            }
+            return;
+        }
+
+        int before = myColumns.size();
+        myColumn = myColumns.intern(line, myTokenStarts[0], myTokenEnds[0]);
+        if (myColumns.size() > before) {
+            this.addColumn(myColumn);
+        }
+
+        for (int t = 1; t + 1 < nbTokens; t += 2) {
+
+            double value = this.number(line, t + 1);
+
+            int row = myRows.get(line, myTokenStarts[t], myTokenEnds[t]);
+
+            if (row >= 0) {
+                this.addEntry(row, myColumn, value);
+            } else if (this.isObjective(line, t)) {
+                myCost[myColumn] = value;
+            } else if (myFreeRows.get(line, myTokenStarts[t], myTokenEnds[t]) < 0) {
+                throw new IOException("Unknown row in COLUMNS: " + this.token(line, t));
+            }
+        }
+    }
+
+    private boolean isColumn(final byte[] line, final int token) {
+        return myColumns.get(line, myTokenStarts[token], myTokenEnds[token]) >= 0;
+    }
+
+    private boolean isObjective(final byte[] line, final int token) {
+        return myObjectiveKey != null && MPSReader.matches(line, myTokenStarts[token], myTokenEnds[token], myObjectiveKey);
+    }
+
+    private void line(final byte[] line, final int length) throws IOException {
+
+        if (length == 0 || line[0] == '*') {
+            return;
+        }
+
+        int nbTokens = this.tokenize(line, length);
+        if (nbTokens == 0) {
+            return;
+        }
+
+        if (line[0] != ' ' && line[0] != '\t') {
+            // Section header
+            String name = this.token(line, 0);
+            try {
+                mySection = Section.valueOf(name);
+            } catch (IllegalArgumentException cause) {
+                throw new IOException("Unsupported MPS section: " + name);
+            }
+            if (mySection == Section.OBJSENSE && nbTokens > 1) {
+                this.sense(this.token(line, 1));
+            }
+            return;
+        }
+
+        switch (mySection) {
+        case ROWS:
+            this.row(line);
+            break;
+        case COLUMNS:
+            this.column(line, nbTokens);
+            break;
+        case RHS:
+            this.rhs(line, nbTokens, false);
+            break;
+        case RANGES:
+            this.rhs(line, nbTokens, true);
+            break;
+        case BOUNDS:
+            this.bound(line, nbTokens);
+            break;
+        case OBJSENSE:
+            this.sense(this.token(line, 0));
+            break;
+        default:
+            break;
+        }
+    }
+
+    private double number(final byte[] line, final int token) {
+        return Double.parseDouble(new String(line, myTokenStarts[token], myTokenEnds[token] - myTokenStarts[token], StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * RHS and RANGES lines: [set name] row value [row value]
+     */
+    private void rhs(final byte[] line, final int nbTokens, final boolean ranges) throws IOException {
+
+        for (int t = nbTokens % 2 == 0 ? 0 : 1; t + 1 < nbTokens; t += 2) {
+
+            double value = this.number(line, t + 1);
+
+            int row = myRows.get(line, myTokenStarts[t], myTokenEnds[t]);
+
+            if (row >= 0) {
+                if (ranges) {
+                    myRanges[row] = value;
+                } else {
+                    myRHS[row] = value;
+                }
+            } else if (this.isObjective(line, t)) {
+                if (!ranges) {
+                    myObjectiveConstant = -value;
+                }
+            } else if (myFreeRows.get(line, myTokenStarts[t], myTokenEnds[t]) < 0) {
+                throw new IOException("Unknown row in " + mySection + ": " + this.token(line, t));
+            }
+        }
+    }
+
+    private void row(final byte[] line) throws IOException {
+
+        byte type = line[myTokenStarts[0]];
+
+        int from = myTokenStarts[1];
+        int to = myTokenEnds[1];
+
+        switch (type) {
+        case 'N':
+            if (myObjectiveKey == null) {
+                myObjectiveKey = Arrays.copyOfRange(line, from, to);
+            } else {
+                // Additional free rows are ignored
+                myFreeRows.intern(line, from, to);
+            }
+            break;
+        case 'E':
+        case 'L':
+        case 'G':
+            int before = myRows.size();
+            int index = myRows.intern(line, from, to);
+            if (myRows.size() == before) {
+                throw new IOException("Duplicate row: " + myRows.getName(index));
+            }
+            this.addRow(index, type);
+            break;
+        default:
+            throw new IOException("Unsupported row type: " + (char) type);
+        }
+    }
+
+    private void sense(final String sense) {
+        if (sense.startsWith("MAX")) {
+            mySense = Optimisation.Sense.MAX;
+        } else if (sense.startsWith("MIN")) {
+            mySense = Optimisation.Sense.MIN;
+        }
+    }
+
+    private String token(final byte[] line, final int token) {
+        return new String(line, myTokenStarts[token], myTokenEnds[token] - myTokenStarts[token], StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Split the line on whitespace. At most {@link #myTokenStarts}.length tokens are recognised, which is more
+     * than any MPS record has.
+     */
+    private int tokenize(final byte[] line, final int length) {
+
+        int nbTokens = 0;
+
+        int i = 0;
+        while (i < length && nbTokens < myTokenStarts.length) {
+
+            while (i < length && (line[i] == ' ' || line[i] == '\t')) {
+                i++;
+            }
+            if (i == length) {
+                break;
+            }
+
+            myTokenStarts[nbTokens] = i;
+            while (i < length && line[i] != ' ' && line[i] != '\t') {
+                i++;
+            }
+            myTokenEnds[nbTokens] = i;
+
+            nbTokens++;
+        }
+
+        return nbTokens;
+    }
+
+}
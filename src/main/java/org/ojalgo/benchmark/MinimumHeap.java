@@ -0,0 +1,261 @@
+/*
+ * Copyright 1997-2025 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.benchmark;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeoutException;
+
+import org.ojalgo.benchmark.AbstractBenchmark.Configuration;
+import org.ojalgo.benchmark.AbstractBenchmark.FailReason;
+import org.ojalgo.benchmark.AbstractBenchmark.ModelSolverPair;
+import org.ojalgo.benchmark.AbstractBenchmark.ResultsSet;
+import org.ojalgo.netio.ASCII;
+import org.ojalgo.netio.BasicLogger;
+import org.ojalgo.netio.TextLineWriter;
+import org.ojalgo.netio.TextLineWriter.CSVLineBuilder;
+import org.ojalgo.optimisation.Optimisation.Result;
+import org.ojalgo.type.Stopwatch.TimedResult;
+
+/**
+ * Minimum heap mode: for each model/solver pair, bisect the worker JVM's -Xmx to find the smallest heap at
+ * which the solve still succeeds, and is at most {@link Configuration#heapSlowdown} times slower than with the
+ * default heap. Every probe runs in a fresh worker JVM. With a corpus index the result is also expressed as
+ * bytes per non-zero, and summarised per contender. An empty JVM, and the contender's own classes, need some heap
+ * regardless of the model - that baseline is measured, per contender, as the minimum heap to solve a trivial
+ * model, and subtracted before dividing by the number of non-zeros.
+ */
+final class MinimumHeap {
+
+    static final class Probe {
+
+        final int heap;
+        final ForkedTask.ReturnValue returnValue;
+
+        Probe(final int heap, final ForkedTask.ReturnValue returnValue) {
+            super();
+            this.heap = heap;
+            this.returnValue = returnValue;
+        }
+
+    }
+
+    /**
+     * The trivial model used to measure the baseline heap
+     */
+    static final String BASELINE = "/MinimumHeap/baseline.mps";
+    /**
+     * MB, the smallest heap tried
+     */
+    static final int FLOOR = 16;
+    static final long MB = 1024L * 1024L;
+    /**
+     * MB, the bisection stops when the interval is narrower than this, or than 5% of its upper end
+     */
+    static final int RESOLUTION = 8;
+
+    static void discover(final Set<ModelSolverPair> allWork, final Configuration configuration) {
+
+        Map<String, Probe> baselines = new TreeMap<>();
+        Map<ModelSolverPair, Probe> references = new TreeMap<>();
+        Map<ModelSolverPair, Probe> minimums = new TreeMap<>();
+
+        BasicLogger.debug("Minimum heap of {} model/solver pairs, max slowdown {}", allWork.size(), configuration.heapSlowdown);
+        BasicLogger.debug("=====================================================================");
+        BasicLogger.debugColumns(AbstractBenchmark.WIDTH, "Model", "Solver", "Heap", "Time");
+
+        for (ModelSolverPair pair : new TreeSet<>(allWork)) {
+
+            if (!baselines.containsKey(pair.solver)) {
+                ModelSolverPair trivial = new ModelSolverPair(BASELINE, pair.solver);
+                ForkedTask.Request request = new ForkedTask.Request(BASELINE, pair.solver, configuration.maxWaitTime);
+                Probe reference = MinimumHeap.probe(configuration, trivial, request, 0, Double.POSITIVE_INFINITY);
+                baselines.put(pair.solver, reference != null ? MinimumHeap.minimum(configuration, trivial, request, reference) : null);
+            }
+
+            ForkedTask.Request request = configuration.request(pair, configuration.maxWaitTime);
+
+            Probe reference = MinimumHeap.probe(configuration, pair, request, 0, Double.POSITIVE_INFINITY);
+            if (reference == null) {
+                continue;
+            }
+            references.put(pair, reference);
+
+            Probe minimum = MinimumHeap.minimum(configuration, pair, request, reference);
+            if (minimum != null) {
+                minimums.put(pair, minimum);
+            }
+        }
+
+        MinimumHeap.report(configuration, baselines, references, minimums);
+    }
+
+    /**
+     * Bisect the heap, between {@link #FLOOR} and the default heap (of the worker JVM that ran the reference
+     * solve).
+     *
+     * @param reference The solve with the default heap
+     * @return null if it failed even with the largest heap tried
+     */
+    static Probe minimum(final Configuration configuration, final ModelSolverPair pair, final ForkedTask.Request request, final Probe reference) {
+
+        ForkedTask.Usage usage = reference.returnValue.usage;
+
+        int ceiling = Math.toIntExact((usage != null && usage.maxHeap > 0L ? usage.maxHeap : Runtime.getRuntime().maxMemory()) / MB);
+
+        double limit = configuration.heapSlowdown * reference.returnValue.time;
+
+        long peak = usage != null ? usage.peakHeap : 0L;
+        int upper = Math.min(ceiling, Math.max(2 * FLOOR, Math.toIntExact(2L * peak / MB)));
+
+        Probe minimum = MinimumHeap.probe(configuration, pair, request, upper, limit);
+        while (minimum == null && upper < ceiling) {
+            upper = Math.min(ceiling, 2 * upper);
+            minimum = MinimumHeap.probe(configuration, pair, request, upper, limit);
+        }
+        if (minimum == null) {
+            // Not even with the largest heap tried - the reference solve was just lucky?
+            return null;
+        }
+
+        int lower = FLOOR;
+        Probe floor = MinimumHeap.probe(configuration, pair, request, lower, limit);
+        if (floor != null) {
+            return floor;
+        }
+
+        while (upper - lower > Math.max(RESOLUTION, upper / 20)) {
+            int middle = (lower + upper) / 2;
+            Probe probe = MinimumHeap.probe(configuration, pair, request, middle, limit);
+            if (probe != null) {
+                minimum = probe;
+                upper = middle;
+            } else {
+                lower = middle;
+            }
+        }
+
+        return minimum;
+    }
+
+    /**
+     * @param heap MB, 0 means the default heap
+     * @param limit ms, the slowest acceptable solve time
+     * @return null if the solve failed, was not accepted or was too slow
+     */
+    static Probe probe(final Configuration configuration, final ModelSolverPair pair, final ForkedTask.Request request, final int heap,
+            final double limit) {
+
+        List<String> jvmOptions = heap > 0 ? List.of("-Xmx" + heap + "m") : Collections.emptyList();
+        String label = heap > 0 ? "-Xmx" + heap + "m" : "default";
+
+        try (WorkerPool workers = new WorkerPool(1, jvmOptions)) {
+
+            ForkedTask.ReturnValue returnValue = workers.execute(request, configuration.maxWaitTime);
+
+            TimedResult<Result> result = new ResultsSet(configuration).add(returnValue);
+
+            if (result == null || !configuration.isAccepted(result.result.getState())) {
+                BasicLogger.debugColumns(AbstractBenchmark.WIDTH, pair.model, pair.solver, label, FailReason.FAILED);
+                return null;
+            }
+            if (returnValue.time > limit) {
+                BasicLogger.debugColumns(AbstractBenchmark.WIDTH, pair.model, pair.solver, label, FailReason.TIMEOUT, returnValue.time);
+                return null;
+            }
+
+            BasicLogger.debugColumns(AbstractBenchmark.WIDTH, pair.model, pair.solver, label, returnValue.time);
+            return new Probe(heap, returnValue);
+
+        } catch (TimeoutException cause) {
+            BasicLogger.debugColumns(AbstractBenchmark.WIDTH, pair.model, pair.solver, label, FailReason.TIMEOUT);
+            return null;
+        } catch (Exception cause) {
+            // Typically OutOfMemoryError in the worker
+            BasicLogger.debugColumns(AbstractBenchmark.WIDTH, pair.model, pair.solver, label, FailReason.FAILED);
+            return null;
+        }
+    }
+
+    /**
+     * Writes benchmark_heap.csv, and logs the geometric mean bytes per non-zero per contender
+     *
+     * @param baselines The minimum heap for the trivial model, per contender (null if not found)
+     */
+    static void report(final Configuration configuration, final Map<String, Probe> baselines, final Map<ModelSolverPair, Probe> references,
+            final Map<ModelSolverPair, Probe> minimums) {
+
+        Map<String, double[]> perSolver = new TreeMap<>();
+
+        try (TextLineWriter writer = TextLineWriter.of("./src/main/resources/benchmark_heap.csv")) {
+
+            CSVLineBuilder csv = writer.newCSVLineBuilder(ASCII.HT);
+
+            csv.line("Model", "Solver", "nbNonZeros", "Time", "PeakHeap", "MinHeap", "MinHeapTime", "BaselineHeap", "BytesPerNonZero");
+
+            for (Entry<ModelSolverPair, Probe> entry : references.entrySet()) {
+
+                ModelSolverPair pair = entry.getKey();
+                ForkedTask.ReturnValue reference = entry.getValue().returnValue;
+                Probe minimum = minimums.get(pair);
+                Probe baseline = baselines.get(pair.solver);
+
+                CorpusIndex.Entry corpusEntry = configuration.corpus != null ? configuration.corpus.get(pair.model) : null;
+                long nbNonZeros = corpusEntry != null ? corpusEntry.getNonZeros() : 0L;
+
+                Object bytesPerNonZero = "";
+                if (minimum != null && baseline != null && nbNonZeros > 0L) {
+                    // Within the bisection resolution a small model may need no more than the baseline
+                    double bytes = (double) Math.max(0, minimum.heap - baseline.heap) * MB / nbNonZeros;
+                    bytesPerNonZero = bytes;
+                    if (bytes > 0.0) {
+                        double[] aggregate = perSolver.computeIfAbsent(pair.solver, k -> new double[2]);
+                        aggregate[0] += Math.log(bytes);
+                        aggregate[1]++;
+                    }
+                }
+
+                csv.line(pair.model, pair.solver, nbNonZeros > 0L ? nbNonZeros : "", AbstractBenchmark.toNanos(reference.time),
+                        reference.usage != null ? reference.usage.peakHeap : "", minimum != null ? minimum.heap : "",
+                        minimum != null ? AbstractBenchmark.toNanos(minimum.returnValue.time) : "", baseline != null ? baseline.heap : "", bytesPerNonZero);
+            }
+
+        } catch (IOException cause) {
+            throw new RuntimeException(cause);
+        }
+
+        BasicLogger.debug();
+        BasicLogger.debug("Minimum heap, bytes per non-zero above the baseline (geometric mean)");
+        BasicLogger.debug("=====================================================================");
+        for (Entry<String, double[]> entry : perSolver.entrySet()) {
+            double[] aggregate = entry.getValue();
+            BasicLogger.debugColumns(AbstractBenchmark.WIDTH, entry.getKey(), Math.exp(aggregate[0] / aggregate[1]), Math.round(aggregate[1]) + " models");
+        }
+    }
+
+}
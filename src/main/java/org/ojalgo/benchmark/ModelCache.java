@@ -0,0 +1,503 @@
+/*
+ * Copyright 1997-2025 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.benchmark;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import org.ojalgo.netio.ASCII;
+import org.ojalgo.netio.BasicLogger;
+import org.ojalgo.optimisation.Expression;
+import org.ojalgo.optimisation.ExpressionsBasedModel;
+import org.ojalgo.optimisation.ExpressionsBasedModel.FileFormat;
+import org.ojalgo.optimisation.Optimisation;
+import org.ojalgo.optimisation.Variable;
+import org.ojalgo.structure.Structure1D.IntIndex;
+import org.ojalgo.structure.Structure2D.IntRowColumn;
+
+/**
+ * Parse-once cache of simplified models. The first time a model file is requested it is parsed and
+ * simplified, and the result is written to a compact binary file named by the SHA-256 of the source file's
+ * bytes (and the ojAlgo version). Later requests (in any worker JVM) memory map that file and rebuild the model from primitive arrays,
+ * which is much faster than parsing the MPS/SIF text. A changed source file, or another ojAlgo version, gets a
+ * new hash, and thus a new cache entry, automatically. To not have to read and hash the source on every
+ * request, a small {@link #index(String, boolean)} file per model file path remembers which cache file the
+ * source's current size and time stamp map to.
+ * <p>
+ * File layout (big-endian): magic, format version, parsed model dimensions, parse and simplify times,
+ * optimisation sense, then the
+ * variables (name, integer flag, lower, upper, weight) and the expressions (name, lower, upper, weight,
+ * linear part as int[] indices + double[] values, quadratic part as int[] rows + int[] columns + double[]
+ * values). Missing limits/weights are stored as NaN.
+ */
+abstract class ModelCache {
+
+    static final class Entry {
+
+        /**
+         * The simplified model
+         */
+        public final ExpressionsBasedModel model;
+        /**
+         * The optimisation sense specified in the source file, null if not specified (minimise). A model
+         * rebuilt from the cache has no sense of its own - solve it with
+         * {@link AbstractBenchmark#solve(ExpressionsBasedModel, Optimisation.Sense)}.
+         */
+        public final Optimisation.Sense sense;
+        /**
+         * Number of expressions in the parsed (not simplified) model
+         */
+        public final int nbExpressions;
+        /**
+         * Number of variables in the parsed (not simplified) model
+         */
+        public final int nbVariables;
+        /**
+         * ms, the time it took to parse the source file (when the entry was created)
+         */
+        public final double parseTime;
+        /**
+         * ms, the time it took to simplify the parsed model (when the entry was created)
+         */
+        public final double simplifyTime;
+
+        Entry(final ExpressionsBasedModel model, final Optimisation.Sense sense, final int nbVariables, final int nbExpressions, final double parseTime,
+                final double simplifyTime) {
+            super();
+            this.model = model;
+            this.sense = sense;
+            this.nbVariables = nbVariables;
+            this.nbExpressions = nbExpressions;
+            this.parseTime = parseTime;
+            this.simplifyTime = simplifyTime;
+        }
+
+    }
+
+    static final Path DIRECTORY = Path.of(System.getProperty("ojmpb.cache", "./target/model-cache"));
+
+    private static final int MAGIC = 0x4F4A4D43; // "OJMC"
+    /**
+     * The simplified model depends on the ojAlgo version that parsed and simplified it (workers may run
+     * different versions), so that's part of the cache key too.
+     */
+    private static final String OJALGO = ModelCache.ojAlgo();
+    private static final int VERSION = 3;
+
+    /**
+     * Returns the parsed and simplified model, from the cache if possible.
+     *
+     * @param relax Relax the integer variables (before simplifying) - cached separately
+     */
+    static Entry load(final String modelFilePath, final boolean relax) {
+
+        URL resource = AbstractBenchmark.class.getResource(modelFilePath);
+        if (resource == null) {
+            throw new RuntimeException(new IOException("No such model: " + modelFilePath));
+        }
+
+        Path index = ModelCache.index(modelFilePath, relax);
+        String stamp = ModelCache.stamp(resource);
+
+        String indexed = ModelCache.lookup(index, stamp);
+        if (indexed != null && Files.exists(DIRECTORY.resolve(indexed))) {
+            try {
+                return ModelCache.read(DIRECTORY.resolve(indexed));
+            } catch (IOException cause) {
+                BasicLogger.error("Ignoring unreadable cache file for {}: {}", modelFilePath, cause);
+            }
+        }
+
+        byte[] source;
+        try (InputStream input = resource.openStream()) {
+            source = input.readAllBytes();
+        } catch (IOException cause) {
+            throw new RuntimeException(cause);
+        }
+
+        Path file = DIRECTORY.resolve(ModelCache.hash(source, relax) + ".bin");
+
+        if (!Files.exists(file)) {
+
+            long start = System.nanoTime();
+            MPSReader.Parsed read = ModelCache.parse(modelFilePath, source);
+            ExpressionsBasedModel parsed = read.model;
+            long parsedAt = System.nanoTime();
+            if (relax) {
+                parsed.relax(false);
+            }
+            ExpressionsBasedModel simplified = parsed.simplify();
+            long simplifiedAt = System.nanoTime();
+
+            double parseTime = (parsedAt - start) / 1_000_000.0;
+            double simplifyTime = (simplifiedAt - parsedAt) / 1_000_000.0;
+
+            Optimisation.Sense sense = read.sense;
+
+            try {
+                ModelCache.write(file, simplified, sense, parsed.countVariables(), parsed.countExpressions(), parseTime, simplifyTime);
+            } catch (IOException cause) {
+                BasicLogger.error("Failed to cache {}: {}", modelFilePath, cause);
+                return new Entry(simplified, sense, parsed.countVariables(), parsed.countExpressions(), parseTime, simplifyTime);
+            }
+        }
+
+        if (stamp != null) {
+            ModelCache.index(index, stamp, file.getFileName().toString());
+        }
+
+        try {
+            return ModelCache.read(file);
+        } catch (IOException cause) {
+            throw new RuntimeException(cause);
+        }
+    }
+
+    /**
+     * The sidecar index file of a model file path - a single line with the source file's size and time stamp,
+     * and the name of the cache file built from it. As long as the size and time stamp are unchanged the
+     * source is neither read nor hashed again.
+     */
+    static Path index(final String modelFilePath, final boolean relax) {
+        return DIRECTORY.resolve(ModelCache.hash(modelFilePath.getBytes(StandardCharsets.UTF_8), relax) + ".idx");
+    }
+
+    private static String hash(final byte[] source, final boolean relax) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(source);
+            digest.update((byte) VERSION);
+            digest.update((byte) (relax ? 1 : 0));
+            digest.update(OJALGO.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException cause) {
+            throw new RuntimeException(cause);
+        }
+    }
+
+    private static void index(final Path index, final String stamp, final String name) {
+        try {
+            Files.createDirectories(index.getParent());
+            Path temporary = Files.createTempFile(index.getParent(), "index", ".tmp");
+            Files.writeString(temporary, stamp + ASCII.HT + name, StandardCharsets.UTF_8);
+            Files.move(temporary, index, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException cause) {
+            BasicLogger.error("Failed to index {}: {}", name, cause);
+        }
+    }
+
+    /**
+     * @return The indexed cache file name, or null if there is no index or the stamp has changed
+     */
+    private static String lookup(final Path index, final String stamp) {
+
+        if (stamp == null || !Files.exists(index)) {
+            return null;
+        }
+
+        try {
+            String line = Files.readString(index, StandardCharsets.UTF_8);
+            int split = line.lastIndexOf(ASCII.HT);
+            if (split > 0 && stamp.equals(line.substring(0, split))) {
+                return line.substring(split + 1);
+            }
+        } catch (IOException cause) {
+            BasicLogger.error("Ignoring unreadable index {}: {}", index, cause);
+        }
+
+        return null;
+    }
+
+    /**
+     * The ojAlgo version, from the jar manifest. For snapshots, or when there is no version, the location,
+     * size and time stamp of the jar (or classes directory) is used instead.
+     */
+    private static String ojAlgo() {
+
+        String version = ExpressionsBasedModel.class.getPackage().getImplementationVersion();
+        if (version != null && !version.endsWith("SNAPSHOT")) {
+            return version;
+        }
+
+        CodeSource source = ExpressionsBasedModel.class.getProtectionDomain().getCodeSource();
+        if (source == null || source.getLocation() == null) {
+            return String.valueOf(version);
+        }
+
+        try {
+            Path location = Path.of(source.getLocation().toURI());
+            return location + ":" + Files.size(location) + ":" + Files.getLastModifiedTime(location).toMillis();
+        } catch (IOException | URISyntaxException | IllegalArgumentException cause) {
+            return source.getLocation().toString();
+        }
+    }
+
+    /**
+     * Same as {@link AbstractBenchmark#parse(String)}, but from the already read source bytes
+     */
+    private static MPSReader.Parsed parse(final String modelFilePath, final byte[] source) {
+        try (InputStream input = modelFilePath.endsWith(".gz") ? new GZIPInputStream(new ByteArrayInputStream(source), 1 << 16)
+                : new ByteArrayInputStream(source)) {
+            if (MPSReader.isStreamed(modelFilePath)) {
+                return MPSReader.read(Channels.newChannel(input));
+            } else {
+                return new MPSReader.Parsed(ExpressionsBasedModel.parse(input, FileFormat.MPS));
+            }
+        } catch (IOException cause) {
+            throw new RuntimeException(cause);
+        }
+    }
+
+    private static Entry read(final Path file) throws IOException {
+
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size());
+        }
+
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IOException("Not a (compatible) model cache file: " + file);
+        }
+
+        int nbParsedVariables = buffer.getInt();
+        int nbParsedExpressions = buffer.getInt();
+        double parseTime = buffer.getDouble();
+        double simplifyTime = buffer.getDouble();
+
+        ExpressionsBasedModel model = new ExpressionsBasedModel();
+
+        byte flag = buffer.get();
+        Optimisation.Sense sense = flag == 1 ? Optimisation.Sense.MAX : flag == 0 ? Optimisation.Sense.MIN : null;
+
+        int nbVariables = buffer.getInt();
+        for (int j = 0; j < nbVariables; j++) {
+
+            Variable variable = model.addVariable(ModelCache.readName(buffer));
+
+            if (buffer.get() != 0) {
+                variable.integer(true);
+            }
+
+            double lower = buffer.getDouble();
+            double upper = buffer.getDouble();
+            double weight = buffer.getDouble();
+
+            if (!Double.isNaN(lower)) {
+                variable.lower(lower);
+            }
+            if (!Double.isNaN(upper)) {
+                variable.upper(upper);
+            }
+            if (!Double.isNaN(weight)) {
+                variable.weight(weight);
+            }
+        }
+
+        int nbExpressions = buffer.getInt();
+        for (int i = 0; i < nbExpressions; i++) {
+
+            Expression expression = model.addExpression(ModelCache.readName(buffer));
+
+            double lower = buffer.getDouble();
+            double upper = buffer.getDouble();
+            double weight = buffer.getDouble();
+
+            int nbLinear = buffer.getInt();
+            int[] indices = new int[nbLinear];
+            double[] values = new double[nbLinear];
+            buffer.asIntBuffer().get(indices);
+            buffer.position(buffer.position() + Integer.BYTES * nbLinear);
+            buffer.asDoubleBuffer().get(values);
+            buffer.position(buffer.position() + Double.BYTES * nbLinear);
+            for (int k = 0; k < nbLinear; k++) {
+                expression.set(indices[k], values[k]);
+            }
+
+            int nbQuadratic = buffer.getInt();
+            int[] rows = new int[nbQuadratic];
+            int[] columns = new int[nbQuadratic];
+            double[] factors = new double[nbQuadratic];
+            buffer.asIntBuffer().get(rows);
+            buffer.position(buffer.position() + Integer.BYTES * nbQuadratic);
+            buffer.asIntBuffer().get(columns);
+            buffer.position(buffer.position() + Integer.BYTES * nbQuadratic);
+            buffer.asDoubleBuffer().get(factors);
+            buffer.position(buffer.position() + Double.BYTES * nbQuadratic);
+            for (int k = 0; k < nbQuadratic; k++) {
+                expression.set(rows[k], columns[k], factors[k]);
+            }
+
+            if (!Double.isNaN(lower)) {
+                expression.lower(lower);
+            }
+            if (!Double.isNaN(upper)) {
+                expression.upper(upper);
+            }
+            if (!Double.isNaN(weight)) {
+                expression.weight(weight);
+            }
+        }
+
+        return new Entry(model, sense, nbParsedVariables, nbParsedExpressions, parseTime, simplifyTime);
+    }
+
+    private static String readName(final ByteBuffer buffer) {
+        int length = buffer.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The size and last modified time of the source file, null if either is unknown
+     */
+    private static String stamp(final URL resource) {
+
+        long size;
+        long modified;
+
+        try {
+            if ("file".equals(resource.getProtocol())) {
+                Path path = Path.of(resource.toURI());
+                size = Files.size(path);
+                modified = Files.getLastModifiedTime(path).toMillis();
+            } else {
+                URLConnection connection = resource.openConnection();
+                size = connection.getContentLengthLong();
+                modified = connection.getLastModified();
+                connection.getInputStream().close();
+            }
+        } catch (IOException | URISyntaxException | IllegalArgumentException cause) {
+            return null;
+        }
+
+        return size >= 0L && modified > 0L ? size + ":" + modified : null;
+    }
+
+    private static double toDouble(final BigDecimal value) {
+        return value != null ? value.doubleValue() : Double.NaN;
+    }
+
+    private static void write(final Path file, final ExpressionsBasedModel model, final Optimisation.Sense sense, final int nbParsedVariables, final int nbParsedExpressions,
+            final double parseTime, final double simplifyTime) throws IOException {
+
+        Files.createDirectories(file.getParent());
+
+        Path temporary = Files.createTempFile(file.getParent(), "model", ".tmp");
+
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16))) {
+
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+
+            output.writeInt(nbParsedVariables);
+            output.writeInt(nbParsedExpressions);
+            output.writeDouble(parseTime);
+            output.writeDouble(simplifyTime);
+
+            output.writeByte(sense == Optimisation.Sense.MAX ? 1 : sense == Optimisation.Sense.MIN ? 0 : -1);
+
+            List<Variable> variables = model.getVariables();
+            output.writeInt(variables.size());
+            for (Variable variable : variables) {
+                ModelCache.writeName(output, variable.getName());
+                output.writeByte(variable.isInteger() ? 1 : 0);
+                output.writeDouble(ModelCache.toDouble(variable.getLowerLimit()));
+                output.writeDouble(ModelCache.toDouble(variable.getUpperLimit()));
+                output.writeDouble(ModelCache.toDouble(variable.getContributionWeight()));
+            }
+
+            Collection<Expression> expressions = model.getExpressions();
+            output.writeInt(expressions.size());
+            for (Expression expression : expressions) {
+
+                ModelCache.writeName(output, expression.getName());
+                output.writeDouble(ModelCache.toDouble(expression.getLowerLimit()));
+                output.writeDouble(ModelCache.toDouble(expression.getUpperLimit()));
+                output.writeDouble(ModelCache.toDouble(expression.getContributionWeight()));
+
+                Set<Map.Entry<IntIndex, BigDecimal>> linear = expression.getLinearEntrySet();
+                output.writeInt(linear.size());
+                for (Map.Entry<IntIndex, BigDecimal> entry : linear) {
+                    output.writeInt(entry.getKey().index);
+                }
+                for (Map.Entry<IntIndex, BigDecimal> entry : linear) {
+                    output.writeDouble(entry.getValue().doubleValue());
+                }
+
+                Set<Map.Entry<IntRowColumn, BigDecimal>> quadratic = expression.getQuadraticEntrySet();
+                output.writeInt(quadratic.size());
+                for (Map.Entry<IntRowColumn, BigDecimal> entry : quadratic) {
+                    output.writeInt(entry.getKey().row);
+                }
+                for (Map.Entry<IntRowColumn, BigDecimal> entry : quadratic) {
+                    output.writeInt(entry.getKey().column);
+                }
+                for (Map.Entry<IntRowColumn, BigDecimal> entry : quadratic) {
+                    output.writeDouble(entry.getValue().doubleValue());
+                }
+            }
+        }
+
+        // Several workers may build the same entry concurrently - last one wins, and they're all equal
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeName(final DataOutputStream output, final String name) throws IOException {
+        if (name == null) {
+            output.writeShort(-1);
+        } else {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            output.writeShort(bytes.length);
+            output.write(bytes);
+        }
+    }
+
+}
@@ -0,0 +1,409 @@
+/*
+ * Copyright 1997-2025 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+import org.ojalgo.benchmark.AbstractBenchmark.ModelSolverPair;
+import org.ojalgo.matrix.task.iterative.ConjugateGradientSolver;
+import org.ojalgo.matrix.task.iterative.JacobiPreconditioner;
+import org.ojalgo.matrix.task.iterative.MINRESSolver;
+import org.ojalgo.matrix.task.iterative.Preconditioner;
+import org.ojalgo.matrix.task.iterative.QMRSolver;
+import org.ojalgo.matrix.task.iterative.SSORPreconditioner;
+import org.ojalgo.netio.ASCII;
+import org.ojalgo.netio.BasicLogger;
+import org.ojalgo.netio.TextLineWriter;
+import org.ojalgo.netio.TextLineWriter.CSVLineBuilder;
+import org.ojalgo.optimisation.ExpressionsBasedModel;
+import org.ojalgo.optimisation.Optimisation;
+import org.ojalgo.optimisation.convex.ConvexSolver;
+import org.ojalgo.optimisation.integer.IntegerSolver;
+import org.ojalgo.optimisation.integer.IntegerStrategy;
+import org.ojalgo.optimisation.integer.IntegerStrategy.ConfigurableStrategy;
+import org.ojalgo.optimisation.integer.NodeKey;
+import org.ojalgo.optimisation.linear.LinearSolver;
+import org.ojalgo.type.context.NumberContext;
+
+/**
+ * Grids of ojAlgo solver options, declared rather than hard coded as contenders. A sweep is written like a
+ * contender name, but with alternative values separated by '|':
+ *
+ * <pre>
+ * ojAlgo-QP[sparse=true|false,iterative=CG-id|CG-jacobi|MINRES-ssorp]
+ * </pre>
+ *
+ * It expands to one contender per combination (the Cartesian product), named like
+ * "ojAlgo-QP[iterative=CG-id,sparse=true]". The name is all that is needed to recreate the integration, also
+ * in the forked worker JVMs.
+ * <p>
+ * The bases are {@link #LINEAR}, {@link #CONVEX} and {@link #INTEGER}. The options that can be varied are:
+ * <ul>
+ * <li>sparse: true or false
+ * <li>experimental: true or false
+ * <li>linear: dual or primal
+ * <li>iterative: CG, MINRES or QMR combined with id, jacobi or ssorp - e.g. "CG-jacobi"
+ * <li>gap: the {@link IntegerStrategy} gap tolerance, number of significant digits
+ * <li>priority: {@link NodeKey} priority definitions, e.g. "MAX_OBJECTIVE+MIN_OBJECTIVE"
+ * </ul>
+ */
+public final class ParameterSweep {
+
+    public static final String CONVEX = "ojAlgo-QP";
+    public static final String INTEGER = "ojAlgo-MIP";
+    public static final String LINEAR = "ojAlgo-LP";
+    /**
+     * All the {@link NodeKey} priority definitions, by name
+     */
+    public static final Map<String, Comparator<NodeKey>> NODE_KEYS = new LinkedHashMap<>();
+
+    static final String EXPERIMENTAL = "experimental";
+    static final String GAP = "gap";
+    static final String ITERATIVE = "iterative";
+    static final String LINEAR_ALGORITHM = "linear";
+    static final String PRIORITY = "priority";
+    static final String SPARSE = "sparse";
+
+    private static final Map<String, ExpressionsBasedModel.Integration<?>> BASES = new HashMap<>();
+    private static final String[] HEADER = { "Base", "Class", "Models", "Contender", "Solved", "SGM", "Relative" };
+    private static final Map<String, Consumer<Optimisation.Options>> ITERATIVE_SOLVERS = new HashMap<>();
+
+    static {
+
+        BASES.put(LINEAR, LinearSolver.INTEGRATION);
+        BASES.put(CONVEX, ConvexSolver.INTEGRATION);
+        BASES.put(INTEGER, IntegerSolver.INTEGRATION);
+
+        ITERATIVE_SOLVERS.put("CG-id", opt -> opt.convex().iterative(ConjugateGradientSolver::new, Preconditioner::newIdentity));
+        ITERATIVE_SOLVERS.put("CG-jacobi", opt -> opt.convex().iterative(ConjugateGradientSolver::new, JacobiPreconditioner::new));
+        ITERATIVE_SOLVERS.put("CG-ssorp", opt -> opt.convex().iterative(ConjugateGradientSolver::new, SSORPreconditioner::new));
+        ITERATIVE_SOLVERS.put("MINRES-id", opt -> opt.convex().iterative(MINRESSolver::new, Preconditioner::newIdentity));
+        ITERATIVE_SOLVERS.put("MINRES-jacobi", opt -> opt.convex().iterative(MINRESSolver::new, JacobiPreconditioner::new));
+        ITERATIVE_SOLVERS.put("MINRES-ssorp", opt -> opt.convex().iterative(MINRESSolver::new, SSORPreconditioner::new));
+        ITERATIVE_SOLVERS.put("QMR-id", opt -> opt.convex().iterative(QMRSolver::new, Preconditioner::newIdentity));
+        ITERATIVE_SOLVERS.put("QMR-jacobi", opt -> opt.convex().iterative(QMRSolver::new, JacobiPreconditioner::new));
+        ITERATIVE_SOLVERS.put("QMR-ssorp", opt -> opt.convex().iterative(QMRSolver::new, SSORPreconditioner::new));
+
+        NODE_KEYS.put("BREADTH_FIRST_SEARCH", NodeKey.BREADTH_FIRST_SEARCH);
+        NODE_KEYS.put("DEPTH_FIRST_SEARCH", NodeKey.DEPTH_FIRST_SEARCH);
+        NODE_KEYS.put("FIFO_SEQUENCE", NodeKey.FIFO_SEQUENCE);
+        NODE_KEYS.put("LARGE_DISPLACEMENT", NodeKey.LARGE_DISPLACEMENT);
+        NODE_KEYS.put("LIFO_SEQUENCE", NodeKey.LIFO_SEQUENCE);
+        NODE_KEYS.put("MAX_OBJECTIVE", NodeKey.MAX_OBJECTIVE);
+        NODE_KEYS.put("MIN_OBJECTIVE", NodeKey.MIN_OBJECTIVE);
+        NODE_KEYS.put("SMALL_DISPLACEMENT", NodeKey.SMALL_DISPLACEMENT);
+    }
+
+    /**
+     * @return One contender per combination of the sweep's option values
+     */
+    public static List<String> expand(final String sweep) {
+
+        String base = ParameterSweep.base(sweep);
+        Map<String, String[]> knobs = ParameterSweep.knobs(sweep);
+
+        List<Map<String, String>> combinations = new ArrayList<>();
+        combinations.add(new TreeMap<>());
+
+        for (Map.Entry<String, String[]> knob : knobs.entrySet()) {
+            List<Map<String, String>> extended = new ArrayList<>();
+            for (Map<String, String> combination : combinations) {
+                for (String value : knob.getValue()) {
+                    Map<String, String> settings = new TreeMap<>(combination);
+                    settings.put(knob.getKey(), value);
+                    extended.add(settings);
+                }
+            }
+            combinations = extended;
+        }
+
+        List<String> contenders = new ArrayList<>();
+        for (Map<String, String> settings : combinations) {
+            StringJoiner name = new StringJoiner(",", base + "[", "]").setEmptyValue(base);
+            for (Map.Entry<String, String> setting : settings.entrySet()) {
+                name.add(setting.getKey() + "=" + setting.getValue());
+            }
+            contenders.add(name.toString());
+        }
+        return contenders;
+    }
+
+    /**
+     * @param priorities {@link #NODE_KEYS} names joined with '+', e.g. "MAX_OBJECTIVE+MIN_OBJECTIVE"
+     */
+    public static Comparator<NodeKey>[] priorities(final String priorities) {
+
+        String[] names = priorities.split("\\+");
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        Comparator<NodeKey>[] retVal = new Comparator[names.length];
+
+        for (int i = 0; i < names.length; i++) {
+            retVal[i] = NODE_KEYS.get(names[i]);
+            if (retVal[i] == null) {
+                throw new IllegalArgumentException("Unknown priority: " + names[i]);
+            }
+        }
+
+        return retVal;
+    }
+
+    /**
+     * Is this a contender generated by a sweep (regardless of ojAlgo version)?
+     */
+    static boolean isSweep(final String contender) {
+        return BASES.containsKey(ParameterSweep.base(AbstractBenchmark.Contender.base(contender)));
+    }
+
+    /**
+     * Recreate a sweep contender's integration from its name
+     */
+    static ExpressionsBasedModel.Integration<?> integration(final String contender) {
+
+        String name = AbstractBenchmark.Contender.base(contender);
+
+        ExpressionsBasedModel.Integration<?> integration = BASES.get(ParameterSweep.base(name));
+
+        Map<String, String> settings = new TreeMap<>();
+        for (Map.Entry<String, String[]> knob : ParameterSweep.knobs(name).entrySet()) {
+            if (knob.getValue().length != 1) {
+                throw new IllegalArgumentException("Not a single contender: " + contender);
+            }
+            settings.put(knob.getKey(), knob.getValue()[0]);
+        }
+
+        return settings.isEmpty() ? integration : integration.withOptionsModifier(opt -> ParameterSweep.apply(settings, opt));
+    }
+
+    /**
+     * For each sweep base, and each model class (size profile when there is a corpus index), rank the sweep's
+     * contenders by shifted geometric mean (the same measure as the {@link Leaderboard}) and log the best.
+     *
+     * @param solveTimes ms, accepted (correct and within time) results only
+     */
+    static void report(final String path, final AbstractBenchmark.Configuration configuration, final Set<ModelSolverPair> attempted,
+            final Map<ModelSolverPair, Double> solveTimes) {
+
+        // base -> class -> contender -> models
+        Map<String, Map<String, Map<String, Set<String>>>> grouped = new TreeMap<>();
+
+        for (ModelSolverPair pair : attempted) {
+            if (ParameterSweep.isSweep(pair.solver)) {
+                String base = ParameterSweep.base(AbstractBenchmark.Contender.base(pair.solver));
+                CorpusIndex.Entry entry = configuration.corpus != null ? configuration.corpus.get(pair.model) : null;
+                String modelClass = entry != null ? entry.getProfile().name() : "ALL";
+                grouped.computeIfAbsent(base, k -> new TreeMap<>()).computeIfAbsent(modelClass, k -> new TreeMap<>())
+                        .computeIfAbsent(pair.solver, k -> new TreeSet<>()).add(pair.model);
+            }
+        }
+
+        if (grouped.isEmpty()) {
+            return;
+        }
+
+        BasicLogger.debug();
+        BasicLogger.debug("Best configuration per model class (shifted geometric mean ms, shift {})", configuration.shift);
+        BasicLogger.debug("=====================================================================");
+
+        try (TextLineWriter writer = TextLineWriter.of(path)) {
+
+            CSVLineBuilder csv = writer.newCSVLineBuilder(ASCII.HT);
+
+            csv.line((Object[]) HEADER);
+
+            for (Map.Entry<String, Map<String, Map<String, Set<String>>>> byBase : grouped.entrySet()) {
+                for (Map.Entry<String, Map<String, Set<String>>> byClass : byBase.getValue().entrySet()) {
+
+                    // Only the models attempted by all of the sweep's contenders
+                    Set<String> models = null;
+                    for (Set<String> attemptedModels : byClass.getValue().values()) {
+                        if (models == null) {
+                            models = new TreeSet<>(attemptedModels);
+                        } else {
+                            models.retainAll(attemptedModels);
+                        }
+                    }
+                    if (models == null || models.isEmpty()) {
+                        continue;
+                    }
+
+                    String[] contenders = byClass.getValue().keySet().toArray(new String[0]);
+                    int[] solved = new int[contenders.length];
+                    double[] sgm = new double[contenders.length];
+                    double bestSGM = Double.POSITIVE_INFINITY;
+
+                    for (int c = 0; c < contenders.length; c++) {
+                        double[] times = new double[models.size()];
+                        int m = 0;
+                        for (String model : models) {
+                            Double time = solveTimes.get(new ModelSolverPair(model, contenders[c]));
+                            times[m++] = time != null ? time.doubleValue() : Double.POSITIVE_INFINITY;
+                            if (time != null) {
+                                solved[c]++;
+                            }
+                        }
+                        sgm[c] = Leaderboard.sgm(times, configuration.maxWaitTime, configuration.shift);
+                        bestSGM = Math.min(bestSGM, sgm[c]);
+                    }
+
+                    Integer[] order = new Integer[contenders.length];
+                    for (int c = 0; c < order.length; c++) {
+                        order[c] = c;
+                    }
+                    Arrays.sort(order, (a, b) -> Double.compare(sgm[a], sgm[b]));
+
+                    BasicLogger.debugColumns(AbstractBenchmark.WIDTH, byClass.getKey(), models.size() + " models", contenders[order[0]], sgm[order[0]]);
+
+                    for (int c : order) {
+                        csv.line(byBase.getKey(), byClass.getKey(), models.size(), contenders[c], solved[c], sgm[c], sgm[c] / bestSGM);
+                    }
+                }
+            }
+
+        } catch (IOException cause) {
+            throw new RuntimeException(cause);
+        }
+    }
+
+    private static void apply(final Map<String, String> settings, final Optimisation.Options options) {
+
+        ConfigurableStrategy strategy = null;
+
+        // Sorted by name, so the gap is set before any priorities are added
+        for (Map.Entry<String, String> setting : settings.entrySet()) {
+
+            String value = setting.getValue();
+
+            switch (setting.getKey()) {
+            case SPARSE:
+                options.sparse = Boolean.valueOf(value);
+                break;
+            case EXPERIMENTAL:
+                options.experimental = Boolean.parseBoolean(value);
+                break;
+            case LINEAR_ALGORITHM:
+                if ("dual".equals(value)) {
+                    options.linear().dual();
+                } else {
+                    options.linear().primal();
+                }
+                break;
+            case ITERATIVE:
+                ITERATIVE_SOLVERS.get(value).accept(options);
+                break;
+            case GAP:
+                strategy = IntegerStrategy.DEFAULT.withGapTolerance(NumberContext.of(Integer.parseInt(value)));
+                break;
+            case PRIORITY:
+                strategy = (strategy != null ? strategy : IntegerStrategy.DEFAULT).addPriorityDefinitions(ParameterSweep.priorities(value));
+                break;
+            default:
+                break;
+            }
+        }
+
+        if (strategy != null) {
+            options.integer(strategy);
+        }
+    }
+
+    private static String base(final String sweep) {
+        int open = sweep.indexOf('[');
+        return open >= 0 ? sweep.substring(0, open) : sweep;
+    }
+
+    /**
+     * Parses, and validates, the option values of a sweep (or a single contender)
+     */
+    private static Map<String, String[]> knobs(final String sweep) {
+
+        String base = ParameterSweep.base(sweep);
+        if (!BASES.containsKey(base)) {
+            throw new IllegalArgumentException("Unknown sweep base " + base + " in " + sweep + ", should be one of " + BASES.keySet());
+        }
+
+        Map<String, String[]> knobs = new TreeMap<>();
+
+        if (base.length() == sweep.length()) {
+            return knobs;
+        }
+        if (!sweep.endsWith("]")) {
+            throw new IllegalArgumentException("Malformed sweep " + sweep);
+        }
+
+        for (String knob : sweep.substring(base.length() + 1, sweep.length() - 1).split(",")) {
+
+            if (knob.isBlank()) {
+                continue;
+            }
+
+            int equals = knob.indexOf('=');
+            if (equals <= 0) {
+                throw new IllegalArgumentException("Malformed option " + knob + " in " + sweep);
+            }
+
+            String key = knob.substring(0, equals).trim();
+            String[] values = knob.substring(equals + 1).split("\\|");
+            for (int i = 0; i < values.length; i++) {
+                values[i] = values[i].trim();
+                if (!ParameterSweep.isValid(key, values[i])) {
+                    throw new IllegalArgumentException("Invalid option " + key + "=" + values[i] + " in " + sweep);
+                }
+            }
+
+            knobs.put(key, values);
+        }
+
+        return knobs;
+    }
+
+    private static boolean isValid(final String key, final String value) {
+        switch (key) {
+        case SPARSE:
+        case EXPERIMENTAL:
+            return "true".equals(value) || "false".equals(value);
+        case LINEAR_ALGORITHM:
+            return "dual".equals(value) || "primal".equals(value);
+        case ITERATIVE:
+            return ITERATIVE_SOLVERS.containsKey(value);
+        case GAP:
+            return value.matches("\\d+");
+        case PRIORITY:
+            return Arrays.stream(value.split("\\+")).allMatch(NODE_KEYS::containsKey);
+        default:
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 1997-2025 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.ojalgo.optimisation.Expression;
+import org.ojalgo.optimisation.ExpressionsBasedModel;
+import org.ojalgo.optimisation.Variable;
+import org.ojalgo.structure.Structure1D.IntIndex;
+
+/**
+ * Small changes to a model, of the kind made between re-solves in production: a variable bound, a constraint
+ * limit (right hand side) or an objective coefficient is moved by at most {@link #MAGNITUDE} (relative). Bounds
+ * and limits are only ever relaxed, so a feasible model stays feasible. The changes are drawn from a seeded
+ * generator - the same seed and model give the same sequence of changes, regardless of solver.
+ */
+final class Perturbation {
+
+    static final double MAGNITUDE = 0.01;
+
+    private final Random myRandom;
+
+    Perturbation(final long seed) {
+        super();
+        myRandom = new Random(seed);
+    }
+
+    /**
+     * Make one change to the model
+     *
+     * @return false if nothing (applicable) was found to change
+     */
+    boolean apply(final ExpressionsBasedModel model) {
+
+        List<Variable> variables = model.getVariables();
+        List<Expression> constraints = new ArrayList<>();
+        List<Expression> objectives = new ArrayList<>();
+        for (Expression expression : model.getExpressions()) {
+            if (expression.isConstraint()) {
+                constraints.add(expression);
+            } else if (expression.isObjective() && !expression.getLinearKeySet().isEmpty()) {
+                objectives.add(expression);
+            }
+        }
+
+        int first = myRandom.nextInt(3);
+
+        for (int kind = first; kind < first + 3; kind++) {
+            switch (kind % 3) {
+            case 0:
+                if (this.relaxBound(variables)) {
+                    return true;
+                }
+                break;
+            case 1:
+                if (this.relaxLimit(constraints)) {
+                    return true;
+                }
+                break;
+            default:
+                if (this.changeObjective(variables, objectives)) {
+                    return true;
+                }
+                break;
+            }
+        }
+
+        return false;
+    }
+
+    private boolean changeObjective(final List<Variable> variables, final List<Expression> objectives) {
+
+        if (variables.isEmpty()) {
+            return false;
+        }
+
+        Variable variable = variables.get(myRandom.nextInt(variables.size()));
+        BigDecimal weight = variable.getContributionWeight();
+
+        if (weight != null && weight.signum() != 0) {
+            variable.weight(this.scale(weight));
+            return true;
+        }
+
+        if (objectives.isEmpty()) {
+            return false;
+        }
+
+        Expression objective = objectives.get(myRandom.nextInt(objectives.size()));
+        List<Map.Entry<IntIndex, BigDecimal>> entries = new ArrayList<>(objective.getLinearEntrySet());
+        Map.Entry<IntIndex, BigDecimal> entry = entries.get(myRandom.nextInt(entries.size()));
+
+        objective.set(entry.getKey().index, this.scale(entry.getValue()));
+        return true;
+    }
+
+    /**
+     * @return The value increased (up) or decreased (down) by up to {@link #MAGNITUDE}, relative - absolute
+     *         for values smaller than 1
+     */
+    private BigDecimal nudge(final BigDecimal value, final boolean up) {
+        double delta = MAGNITUDE * myRandom.nextDouble() * Math.max(1.0, Math.abs(value.doubleValue()));
+        return BigDecimal.valueOf(up ? value.doubleValue() + delta : value.doubleValue() - delta);
+    }
+
+    private boolean relaxBound(final List<Variable> variables) {
+
+        if (variables.isEmpty()) {
+            return false;
+        }
+
+        Variable variable = variables.get(myRandom.nextInt(variables.size()));
+        if (variable.isInteger()) {
+            return false;
+        }
+
+        BigDecimal lower = variable.getLowerLimit();
+        BigDecimal upper = variable.getUpperLimit();
+
+        if (lower != null && upper != null && lower.compareTo(upper) == 0) {
+            // Fixed, keep it that way
+            return false;
+        }
+
+        if (upper != null && (lower == null || myRandom.nextBoolean())) {
+            variable.upper(this.nudge(upper, true));
+            return true;
+        } else if (lower != null) {
+            variable.lower(this.nudge(lower, false));
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    private boolean relaxLimit(final List<Expression> constraints) {
+
+        if (constraints.isEmpty()) {
+            return false;
+        }
+
+        Expression constraint = constraints.get(myRandom.nextInt(constraints.size()));
+
+        BigDecimal lower = constraint.getLowerLimit();
+        BigDecimal upper = constraint.getUpperLimit();
+
+        if (lower != null && upper != null && lower.compareTo(upper) == 0) {
+            // Equality constraints are left alone
+            return false;
+        }
+
+        if (upper != null && (lower == null || myRandom.nextBoolean())) {
+            constraint.upper(this.nudge(upper, true));
+            return true;
+        } else if (lower != null) {
+            constraint.lower(this.nudge(lower, false));
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    private BigDecimal scale(final BigDecimal value) {
+        double factor = 1.0 + MAGNITUDE * (2.0 * myRandom.nextDouble() - 1.0);
+        return BigDecimal.valueOf(value.doubleValue() * factor);
+    }
+
+}
@@ -0,0 +1,372 @@
+/*
+ * Copyright 1997-2025 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.ojalgo.benchmark.AbstractBenchmark.ModelSolverPair;
+import org.ojalgo.netio.ASCII;
+import org.ojalgo.netio.BasicLogger;
+
+/**
+ * Compares a fresh run with a stored baseline, typically before and after upgrading ojAlgo. Either file may
+ * be a journal (all the samples, see {@link ResultsJournal}) or a results CSV (only the fastest time per
+ * pair). Journals are preferred as they allow a proper test.
+ * <p>
+ * For each model/solver pair present in both, the sample distributions are compared with a (two-sided)
+ * Mann-Whitney U test, and the effect size is the ratio of the medians (current / baseline). With up to 20
+ * samples per side the p-value is exact, otherwise the normal approximation is used. Even perfectly
+ * separated samples need enough of them to reach the default alpha of 0.01: 5 per side (p = 0.0079), or 4
+ * and 6. With the harness' default of 3 samples the smallest possible p-value is 0.1, so use a larger
+ * minSamples (or a larger alpha) for the runs that are compared. A pair is a
+ * regression if it's significantly slower by more than the threshold, or if it was solved in the baseline but
+ * not anymore. Pairs with too few samples to test (a results CSV has only one per pair) are reported, and
+ * count towards the geometric mean, but never fail on their own. Per solver, the geometric mean of the ratios
+ * is reported. The process exits with status 1 if there is any regression, or if any solver's geometric mean
+ * is worse than the threshold.
+ * <p>
+ * Usage: RegressionGate &lt;baseline&gt; &lt;current&gt; [--threshold=0.10] [--alpha=0.01]
+ */
+public final class RegressionGate {
+
+    /**
+     * Max number of samples (per side) for which the exact Mann-Whitney distribution is used
+     */
+    static final int EXACT = 20;
+
+    static final class Comparison {
+
+        final ModelSolverPair pair;
+        final double pValue;
+        final double ratio;
+
+        Comparison(final ModelSolverPair pair, final double ratio, final double pValue) {
+            super();
+            this.pair = pair;
+            this.ratio = ratio;
+            this.pValue = pValue;
+        }
+
+        /**
+         * false if there were too few samples to test
+         */
+        boolean isSignificant(final double alpha) {
+            return pValue <= alpha;
+        }
+
+        boolean isTestable() {
+            return !Double.isNaN(pValue);
+        }
+
+    }
+
+    public static void main(final String[] args) {
+
+        double threshold = 0.10;
+        double alpha = 0.01;
+
+        String[] files = new String[2];
+        int nbFiles = 0;
+
+        for (String arg : args) {
+            if (arg.startsWith("--threshold=")) {
+                threshold = Double.parseDouble(arg.substring("--threshold=".length()));
+            } else if (arg.startsWith("--alpha=")) {
+                alpha = Double.parseDouble(arg.substring("--alpha=".length()));
+            } else if (nbFiles < files.length) {
+                files[nbFiles++] = arg;
+            }
+        }
+
+        if (nbFiles != 2) {
+            BasicLogger.error("Usage: RegressionGate <baseline> <current> [--threshold=0.10] [--alpha=0.01]");
+            System.exit(2);
+        }
+
+        boolean regression = RegressionGate.compare(RegressionGate.read(files[0]), RegressionGate.read(files[1]), threshold, alpha);
+
+        System.exit(regression ? 1 : 0);
+    }
+
+    /**
+     * @return true if there's a regression beyond the threshold
+     */
+    static boolean compare(final Map<ModelSolverPair, double[]> baseline, final Map<ModelSolverPair, double[]> current, final double threshold,
+            final double alpha) {
+
+        boolean regression = false;
+        int untested = 0;
+
+        Map<String, double[]> logRatioSums = new TreeMap<>();
+
+        BasicLogger.debug();
+        BasicLogger.debug("Significant changes (ratio = current / baseline)");
+        BasicLogger.debug("=====================================================================");
+
+        Set<ModelSolverPair> pairs = new TreeSet<>(baseline.keySet());
+        pairs.retainAll(current.keySet());
+
+        for (ModelSolverPair pair : pairs) {
+
+            double[] before = baseline.get(pair);
+            double[] after = current.get(pair);
+
+            if (before.length == 0) {
+                if (after.length > 0) {
+                    BasicLogger.debugColumns(AbstractBenchmark.WIDTH, pair.model, pair.solver, "FIXED", "solved now");
+                }
+                continue;
+            }
+
+            if (after.length == 0) {
+                BasicLogger.debugColumns(AbstractBenchmark.WIDTH, pair.model, pair.solver, "REGRESSION", "not solved anymore");
+                regression = true;
+                continue;
+            }
+
+            Comparison comparison = new Comparison(pair, RegressionGate.median(after) / RegressionGate.median(before),
+                    RegressionGate.mannWhitney(before, after));
+
+            double[] sums = logRatioSums.computeIfAbsent(pair.solver, k -> new double[2]);
+            sums[0] += Math.log(comparison.ratio);
+            sums[1]++;
+
+            if (!comparison.isTestable()) {
+                untested++;
+                if (comparison.ratio > 1.0 + threshold || comparison.ratio < 1.0 / (1.0 + threshold)) {
+                    BasicLogger.debugColumns(AbstractBenchmark.WIDTH, pair.model, pair.solver, "UNTESTED", comparison.ratio, "too few samples");
+                }
+            } else if (comparison.isSignificant(alpha)) {
+                if (comparison.ratio > 1.0 + threshold) {
+                    BasicLogger.debugColumns(AbstractBenchmark.WIDTH, pair.model, pair.solver, "REGRESSION", comparison.ratio, comparison.pValue);
+                    regression = true;
+                } else if (comparison.ratio < 1.0 / (1.0 + threshold)) {
+                    BasicLogger.debugColumns(AbstractBenchmark.WIDTH, pair.model, pair.solver, "SPEEDUP", comparison.ratio, comparison.pValue);
+                }
+            }
+        }
+
+        if (untested > 0) {
+            BasicLogger.debug("{} pairs had too few samples to test - included in the geometric means only", untested);
+        }
+
+        BasicLogger.debug();
+        BasicLogger.debug("Geometric mean ratio per solver");
+        BasicLogger.debug("=====================================================================");
+
+        for (Entry<String, double[]> entry : logRatioSums.entrySet()) {
+
+            double[] sums = entry.getValue();
+            double geometricMean = Math.exp(sums[0] / sums[1]);
+
+            boolean worse = geometricMean > 1.0 + threshold;
+            regression |= worse;
+
+            BasicLogger.debugColumns(AbstractBenchmark.WIDTH, entry.getKey(), (int) sums[1] + " pairs", geometricMean, worse ? "REGRESSION" : "OK");
+        }
+
+        return regression;
+    }
+
+    /**
+     * Two-sided p-value of the Mann-Whitney U test. Exact (conditional on the ties) when both samples have at
+     * most {@link #EXACT} values, otherwise the normal approximation with tie and continuity correction. NaN if
+     * either sample has fewer than 2 values.
+     */
+    static double mannWhitney(final double[] sample1, final double[] sample2) {
+
+        int n1 = sample1.length;
+        int n2 = sample2.length;
+        if (n1 < 2 || n2 < 2) {
+            return Double.NaN;
+        }
+
+        int n = n1 + n2;
+
+        // Sort (value, group) and assign average ranks to ties - doubled to keep them integer
+        double[][] all = new double[n][];
+        for (int i = 0; i < n1; i++) {
+            all[i] = new double[] { sample1[i], 1.0 };
+        }
+        for (int i = 0; i < n2; i++) {
+            all[n1 + i] = new double[] { sample2[i], 2.0 };
+        }
+        Arrays.sort(all, (a, b) -> Double.compare(a[0], b[0]));
+
+        int[] doubledRanks = new int[n];
+        int doubledRankSum1 = 0;
+        double tieSum = 0.0;
+
+        for (int i = 0; i < n;) {
+            int j = i;
+            while (j + 1 < n && all[j + 1][0] == all[i][0]) {
+                j++;
+            }
+            int rank = i + j + 2;
+            for (int k = i; k <= j; k++) {
+                doubledRanks[k] = rank;
+                if (all[k][1] == 1.0) {
+                    doubledRankSum1 += rank;
+                }
+            }
+            double t = j - i + 1;
+            tieSum += t * t * t - t;
+            i = j + 1;
+        }
+
+        if (n1 <= EXACT && n2 <= EXACT) {
+            return RegressionGate.exact(doubledRanks, n1, doubledRankSum1);
+        }
+
+        double u = doubledRankSum1 / 2.0 - n1 * (n1 + 1) / 2.0;
+        double mean = n1 * n2 / 2.0;
+        double variance = n1 * n2 / 12.0 * (n + 1 - tieSum / (n * (n - 1.0)));
+
+        if (variance <= 0.0) {
+            return 1.0;
+        }
+
+        double z = Math.max(0.0, Math.abs(u - mean) - 0.5) / Math.sqrt(variance);
+
+        return Math.min(1.0, 2.0 * (1.0 - RegressionGate.normal(z)));
+    }
+
+    /**
+     * Reads a journal (SAMPLE records, ms) or a results CSV (Time column, ns). Pairs that failed have an
+     * empty sample array.
+     */
+    static Map<ModelSolverPair, double[]> read(final String path) {
+
+        Map<ModelSolverPair, double[]> retVal = new HashMap<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(Path.of(path), StandardCharsets.UTF_8)) {
+
+            Map<String, Integer> header = new HashMap<>();
+            String[] names = reader.readLine().split(String.valueOf(ASCII.HT), -1);
+            for (int i = 0; i < names.length; i++) {
+                header.put(names[i], i);
+            }
+
+            boolean journal = header.containsKey("Status");
+            int time = header.get("Time");
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+
+                String[] fields = line.split(String.valueOf(ASCII.HT), -1);
+                if (fields.length < names.length) {
+                    continue;
+                }
+
+                ModelSolverPair pair = new ModelSolverPair(fields[header.get("Model")], fields[header.get("Solver")]);
+                double[] samples = retVal.computeIfAbsent(pair, k -> new double[0]);
+
+                if (journal) {
+                    String status = fields[header.get("Status")];
+                    if (ResultsJournal.SAMPLE.equals(status) && !fields[time].isEmpty()) {
+                        samples = Arrays.copyOf(samples, samples.length + 1);
+                        samples[samples.length - 1] = Double.parseDouble(fields[time]);
+                        retVal.put(pair, samples);
+                    } else if (!ResultsJournal.SAMPLE.equals(status) && !ResultsJournal.STABLE.equals(status)) {
+                        // Failed (or wrong) - whatever was sampled doesn't count
+                        retVal.put(pair, new double[0]);
+                    }
+                } else if (!fields[time].isEmpty()) {
+                    retVal.put(pair, new double[] { Double.parseDouble(fields[time]) / 1_000_000.0 });
+                }
+            }
+
+        } catch (IOException cause) {
+            throw new RuntimeException(cause);
+        }
+
+        return retVal;
+    }
+
+    /**
+     * The fraction of all ways to pick n1 of the (doubled) ranks with a rank sum at least as far from its
+     * expected value as the observed one. The counts are accumulated per subset size and rank sum.
+     */
+    private static double exact(final int[] doubledRanks, final int n1, final int observed) {
+
+        int maxSum = 0;
+        for (int rank : doubledRanks) {
+            maxSum += rank;
+        }
+
+        double[][] counts = new double[n1 + 1][maxSum + 1];
+        counts[0][0] = 1.0;
+
+        for (int rank : doubledRanks) {
+            for (int k = n1; k >= 1; k--) {
+                double[] from = counts[k - 1];
+                double[] to = counts[k];
+                for (int sum = maxSum; sum >= rank; sum--) {
+                    to[sum] += from[sum - rank];
+                }
+            }
+        }
+
+        int expected = n1 * (doubledRanks.length + 1);
+        int deviation = Math.abs(observed - expected);
+
+        double extreme = 0.0;
+        double total = 0.0;
+        for (int sum = 0; sum <= maxSum; sum++) {
+            total += counts[n1][sum];
+            if (Math.abs(sum - expected) >= deviation) {
+                extreme += counts[n1][sum];
+            }
+        }
+
+        return Math.min(1.0, extreme / total);
+    }
+
+    private static double median(final double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2.0;
+    }
+
+    /**
+     * Standard normal CDF (Abramowitz and Stegun 26.2.17)
+     */
+    private static double normal(final double z) {
+        double t = 1.0 / (1.0 + 0.2316419 * Math.abs(z));
+        double density = Math.exp(-z * z / 2.0) / Math.sqrt(2.0 * Math.PI);
+        double tail = density * t * (0.319381530 + t * (-0.356563782 + t * (1.781477937 + t * (-1.821255978 + t * 1.330274429))));
+        return z >= 0.0 ? 1.0 - tail : tail;
+    }
+
+}
@@ -0,0 +1,350 @@
+/*
+ * Copyright 1997-2025 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.benchmark;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.ojalgo.benchmark.AbstractBenchmark.Configuration;
+import org.ojalgo.benchmark.AbstractBenchmark.FailReason;
+import org.ojalgo.benchmark.AbstractBenchmark.ModelSize;
+import org.ojalgo.benchmark.AbstractBenchmark.ModelSolverPair;
+import org.ojalgo.benchmark.AbstractBenchmark.ResultsSet;
+import org.ojalgo.netio.ASCII;
+import org.ojalgo.netio.BasicLogger;
+
+/**
+ * Append-only, tab separated, record of everything that happens during a benchmark run. There is one
+ * {@link #SAMPLE} record per timed solve (possibly several per {@link ForkedTask.ReturnValue}), and one
+ * record when a pair is done - either {@link #STABLE} or a {@link FailReason}. Each record is flushed as it
+ * is written, so a killed run can be resumed from the journal.
+ */
+final class ResultsJournal implements AutoCloseable {
+
+    static final String[] COLUMNS = { "Model", "Solver", "Status", "Time", "nbVars", "nbExpr", "Result", "Allocated", "CPUTime", "GCs", "GCTime", "PeakHeap", "Parse",
+            "Simplify", "Build", "Solve", "Map", "ReSolves", "Cold", "Warm", "ColdFirst", "MaxHeap" };
+
+    static final String SAMPLE = "SAMPLE";
+    static final String STABLE = "STABLE";
+
+    /**
+     * Opens the journal for writing. When not appending, any existing journal is replaced. When appending, a
+     * partially written last record (from a killed run) is cut off first.
+     */
+    static ResultsJournal open(final String path, final boolean append) {
+        try {
+            Path file = Path.of(path);
+            if (append && Files.exists(file)) {
+                ResultsJournal.truncate(file);
+            }
+            boolean exists = Files.exists(file) && Files.size(file) > 0L;
+            BufferedWriter writer = append ? Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)
+                    : Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+            ResultsJournal journal = new ResultsJournal(writer);
+            if (!append || !exists) {
+                journal.record((Object[]) COLUMNS);
+            }
+            return journal;
+        } catch (IOException cause) {
+            throw new RuntimeException(cause);
+        }
+    }
+
+    /**
+     * Rebuilds the state of a previous (interrupted) run.
+     *
+     * @param path The journal file
+     * @param work Only pairs in this set are restored
+     * @return The pairs that are done (stable or failed) and should not be run again
+     */
+    static Set<ModelSolverPair> replay(final String path, final Configuration configuration, final Set<ModelSolverPair> work,
+            final Map<ModelSolverPair, ResultsSet> totResults, final Map<ModelSolverPair, FailReason> totReasons, final Map<String, ModelSize> modDim) {
+
+        Set<ModelSolverPair> done = new HashSet<>();
+
+        Path file = Path.of(path);
+        if (!Files.exists(file)) {
+            return done;
+        }
+
+        int nbRecords = 0;
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+
+            Map<String, Integer> header = new HashMap<>();
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+
+                String[] fields = line.split(String.valueOf(ASCII.HT), -1);
+
+                if (header.isEmpty()) {
+                    for (int i = 0; i < fields.length; i++) {
+                        header.put(fields[i], i);
+                    }
+                    continue;
+                }
+
+                if (fields.length < header.size()) {
+                    // Partially written last line
+                    continue;
+                }
+
+                ModelSolverPair pair = new ModelSolverPair(fields[header.get("Model")], fields[header.get("Solver")]);
+                if (!work.contains(pair)) {
+                    continue;
+                }
+
+                String status = fields[header.get("Status")];
+                FailReason reason = null;
+
+                ForkedTask.ReturnValue returnValue = null;
+                try {
+                    if (SAMPLE.equals(status)) {
+                        returnValue = ResultsJournal.toReturnValue(fields, header);
+                    } else if (!STABLE.equals(status)) {
+                        reason = FailReason.valueOf(status);
+                    }
+                } catch (IllegalArgumentException cause) {
+                    // Garbled record, e.g. a torn last line that a resumed run appended to
+                    BasicLogger.error("Skipping unreadable journal record: {}", line);
+                    continue;
+                }
+
+                ResultsSet resultsSet = totResults.computeIfAbsent(pair, k -> new ResultsSet(configuration));
+
+                if (returnValue != null) {
+
+                    ForkedTask.ReturnValue sample = returnValue;
+                    modDim.computeIfAbsent(pair.model, k -> new ModelSize(sample.nbExpressions, sample.nbVariables));
+                    resultsSet.add(returnValue);
+
+                } else if (STABLE.equals(status)) {
+
+                    done.add(pair);
+
+                } else {
+
+                    if (reason == FailReason.FAILED || reason == FailReason.TIMEOUT || reason == FailReason.ABANDONED) {
+                        resultsSet.add(AbstractBenchmark.FAILED);
+                    }
+                    totReasons.put(pair, reason);
+                    done.add(pair);
+                }
+
+                nbRecords++;
+            }
+
+        } catch (IOException cause) {
+            throw new RuntimeException(cause);
+        }
+
+        BasicLogger.debug("Resumed {} records from {} - {} model/solver pairs already done", nbRecords, path, done.size());
+
+        return done;
+    }
+
+    private static String clean(final Object value) {
+        return value == null ? "" : value.toString().replace(ASCII.HT, ASCII.SP).replace(ASCII.LF, ASCII.SP).replace(ASCII.CR, ASCII.SP);
+    }
+
+    /**
+     * Cuts the file after its last line separator (to nothing if there is none)
+     */
+    private static void truncate(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+
+            ByteBuffer buffer = ByteBuffer.allocate(4096);
+
+            long end = channel.size();
+            while (end > 0L) {
+
+                long start = Math.max(0L, end - buffer.capacity());
+                buffer.clear().limit((int) (end - start));
+                channel.read(buffer, start);
+
+                for (int i = buffer.position() - 1; i >= 0; i--) {
+                    if (buffer.get(i) == ASCII.LF) {
+                        channel.truncate(start + i + 1);
+                        return;
+                    }
+                }
+
+                end = start;
+            }
+
+            channel.truncate(0L);
+        }
+    }
+
+    private static void details(final ForkedTask.ReturnValue returnValue, final Object[] fields) {
+
+        ForkedTask.Usage usage = returnValue.usage;
+        if (usage != null) {
+            fields[7] = usage.allocatedBytes;
+            fields[8] = usage.cpuTime;
+            fields[9] = usage.gcCount;
+            fields[10] = usage.gcTime;
+            fields[11] = usage.peakHeap;
+            fields[21] = usage.maxHeap;
+        }
+
+        ForkedTask.Phases phases = returnValue.phases;
+        if (phases != null) {
+            fields[12] = phases.parse;
+            fields[13] = phases.simplify;
+            fields[14] = phases.build;
+            fields[15] = phases.solve;
+            fields[16] = phases.map;
+        }
+
+        ForkedTask.ReSolves reSolves = returnValue.reSolves;
+        if (reSolves != null) {
+            fields[17] = reSolves.count;
+            fields[18] = reSolves.cold;
+            fields[19] = reSolves.warm;
+            fields[20] = reSolves.coldFirst;
+        }
+    }
+
+    private static ForkedTask.ReturnValue toReturnValue(final String[] fields, final Map<String, Integer> header) {
+
+        String result = fields[header.get("Result")];
+        double time = Double.parseDouble(fields[header.get("Time")]);
+        int nbVariables = Integer.parseInt(fields[header.get("nbVars")]);
+        int nbExpressions = Integer.parseInt(fields[header.get("nbExpr")]);
+
+        ForkedTask.Usage usage = null;
+        if (header.containsKey("PeakHeap") && !fields[header.get("PeakHeap")].isEmpty()) {
+            long cpuTime = header.containsKey("CPUTime") ? Long.parseLong(fields[header.get("CPUTime")]) : -1L;
+            // Not in journals from before it was recorded
+            long maxHeap = header.containsKey("MaxHeap") && !fields[header.get("MaxHeap")].isEmpty() ? Long.parseLong(fields[header.get("MaxHeap")])
+                    : -1L;
+            usage = new ForkedTask.Usage(Long.parseLong(fields[header.get("Allocated")]), cpuTime, Long.parseLong(fields[header.get("GCs")]),
+                    Long.parseLong(fields[header.get("GCTime")]), Long.parseLong(fields[header.get("PeakHeap")]), maxHeap);
+        }
+
+        ForkedTask.Phases phases = null;
+        if (header.containsKey("Map") && !fields[header.get("Map")].isEmpty()) {
+            phases = new ForkedTask.Phases(Double.parseDouble(fields[header.get("Parse")]), Double.parseDouble(fields[header.get("Simplify")]),
+                    Double.parseDouble(fields[header.get("Build")]), Double.parseDouble(fields[header.get("Solve")]),
+                    Double.parseDouble(fields[header.get("Map")]));
+        }
+
+        ForkedTask.ReSolves reSolves = null;
+        if (header.containsKey("Warm") && !fields[header.get("Warm")].isEmpty()) {
+            int count = Integer.parseInt(fields[header.get("ReSolves")]);
+            // Journals from before the order was randomised always solved cold first
+            int coldFirst = header.containsKey("ColdFirst") && !fields[header.get("ColdFirst")].isEmpty() ? Integer.parseInt(fields[header.get("ColdFirst")])
+                    : count;
+            reSolves = new ForkedTask.ReSolves(count, coldFirst, Double.parseDouble(fields[header.get("Cold")]),
+                    Double.parseDouble(fields[header.get("Warm")]));
+        }
+
+        return new ForkedTask.ReturnValue(result.isEmpty() ? null : result, time, nbVariables, nbExpressions, usage, phases, reSolves);
+    }
+
+    private final BufferedWriter myWriter;
+
+    private ResultsJournal(final BufferedWriter writer) {
+        super();
+        myWriter = writer;
+    }
+
+    @Override
+    public void close() {
+        try {
+            myWriter.close();
+        } catch (IOException cause) {
+            throw new RuntimeException(cause);
+        }
+    }
+
+    void done(final ModelSolverPair pair, final FailReason reason) {
+        this.record(pair.model, pair.solver, reason != null ? reason.name() : STABLE);
+    }
+
+    /**
+     * One {@link #SAMPLE} record per timed solve. Usage, phases and re-solves are only written with the
+     * fastest of them.
+     */
+    void sample(final ModelSolverPair pair, final ForkedTask.ReturnValue returnValue) {
+
+        double[] samples = returnValue.samples != null && returnValue.samples.length > 0 ? returnValue.samples : new double[] { returnValue.time };
+
+        int fastest = 0;
+        for (int i = 1; i < samples.length; i++) {
+            if (Math.abs(samples[i] - returnValue.time) < Math.abs(samples[fastest] - returnValue.time)) {
+                fastest = i;
+            }
+        }
+
+        for (int i = 0; i < samples.length; i++) {
+
+            Object[] fields = new Object[COLUMNS.length];
+
+            fields[0] = pair.model;
+            fields[1] = pair.solver;
+            fields[2] = SAMPLE;
+            fields[3] = i == fastest ? returnValue.time : samples[i];
+            fields[4] = returnValue.nbVariables;
+            fields[5] = returnValue.nbExpressions;
+            fields[6] = returnValue.result;
+
+            if (i == fastest) {
+                ResultsJournal.details(returnValue, fields);
+            }
+
+            this.record(fields);
+        }
+    }
+
+    /**
+     * Missing trailing fields are written as empty
+     */
+    private synchronized void record(final Object... fields) {
+        try {
+            for (int i = 0, limit = Math.max(fields.length, COLUMNS.length); i < limit; i++) {
+                if (i > 0) {
+                    myWriter.write(ASCII.HT);
+                }
+                myWriter.write(i < fields.length ? ResultsJournal.clean(fields[i]) : "");
+            }
+            myWriter.newLine();
+            myWriter.flush();
+        } catch (IOException cause) {
+            throw new RuntimeException(cause);
+        }
+    }
+
+}
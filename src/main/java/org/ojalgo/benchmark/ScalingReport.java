@@ -0,0 +1,151 @@
+/*
+ * Copyright 1997-2025 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+import org.ojalgo.benchmark.AbstractBenchmark.ModelSolverPair;
+import org.ojalgo.benchmark.CorpusIndex.Profile;
+import org.ojalgo.netio.ASCII;
+import org.ojalgo.netio.BasicLogger;
+import org.ojalgo.netio.TextLineWriter;
+import org.ojalgo.netio.TextLineWriter.CSVLineBuilder;
+
+/**
+ * How each solver's time grows with model size (non-zeros). For every solver the accepted results are
+ * grouped by {@link Profile}, and the median non-zeros and median time of each group form the points of a
+ * log-log scaling curve. The slope between consecutive points is the local scaling exponent - time grows as
+ * nnz^slope - so a solver that stops scaling shows up as a jump in slope. An overall exponent is fitted (least
+ * squares in log-log space) over all the solver's results.
+ */
+final class ScalingReport {
+
+    private static final String[] HEADER = { "Solver", "Profile", "Models", "NonZeros", "Time", "Slope" };
+
+    /**
+     * @param solveTimes ms, accepted (correct and within time) results only
+     */
+    static void write(final String path, final CorpusIndex corpus, final Map<ModelSolverPair, Double> solveTimes) {
+
+        Map<String, Map<Profile, List<double[]>>> bySolver = new TreeMap<>();
+
+        for (Entry<ModelSolverPair, Double> entry : solveTimes.entrySet()) {
+
+            CorpusIndex.Entry size = corpus.get(entry.getKey().model);
+            if (size == null || size.getNonZeros() <= 0L) {
+                continue;
+            }
+
+            bySolver.computeIfAbsent(entry.getKey().solver, k -> new EnumMap<>(Profile.class))
+                    .computeIfAbsent(size.getProfile(), k -> new ArrayList<>())
+                    .add(new double[] { size.getNonZeros(), Math.max(entry.getValue().doubleValue(), 1E-3) });
+        }
+
+        BasicLogger.debug();
+        BasicLogger.debug("Scaling (time ~ nnz^exponent)");
+        BasicLogger.debug("=====================================================================");
+
+        try (TextLineWriter writer = TextLineWriter.of(path)) {
+
+            CSVLineBuilder csv = writer.newCSVLineBuilder(ASCII.HT);
+
+            csv.line((Object[]) HEADER);
+
+            for (Entry<String, Map<Profile, List<double[]>>> solverEntry : bySolver.entrySet()) {
+
+                String solver = solverEntry.getKey();
+
+                List<double[]> all = new ArrayList<>();
+
+                double previousNonZeros = Double.NaN;
+                double previousTime = Double.NaN;
+
+                for (Entry<Profile, List<double[]>> profileEntry : solverEntry.getValue().entrySet()) {
+
+                    List<double[]> points = profileEntry.getValue();
+                    all.addAll(points);
+
+                    double nonZeros = ScalingReport.median(points, 0);
+                    double time = ScalingReport.median(points, 1);
+
+                    Object slope = "";
+                    if (!Double.isNaN(previousNonZeros) && nonZeros > previousNonZeros) {
+                        slope = Math.log(time / previousTime) / Math.log(nonZeros / previousNonZeros);
+                    }
+
+                    csv.line(solver, profileEntry.getKey(), points.size(), Math.round(nonZeros), AbstractBenchmark.toNanos(time), slope);
+
+                    previousNonZeros = nonZeros;
+                    previousTime = time;
+                }
+
+                BasicLogger.debugColumns(AbstractBenchmark.WIDTH, solver, all.size() + " models", "exponent " + ScalingReport.exponent(all));
+            }
+
+        } catch (IOException cause) {
+            throw new RuntimeException(cause);
+        }
+    }
+
+    /**
+     * Least squares slope of log(time) vs log(nnz)
+     */
+    private static double exponent(final List<double[]> points) {
+
+        int n = points.size();
+        if (n < 2) {
+            return Double.NaN;
+        }
+
+        double sumX = 0.0, sumY = 0.0, sumXX = 0.0, sumXY = 0.0;
+        for (double[] point : points) {
+            double x = Math.log(point[0]);
+            double y = Math.log(point[1]);
+            sumX += x;
+            sumY += y;
+            sumXX += x * x;
+            sumXY += x * y;
+        }
+
+        double denominator = n * sumXX - sumX * sumX;
+
+        return denominator != 0.0 ? (n * sumXY - sumX * sumY) / denominator : Double.NaN;
+    }
+
+    private static double median(final List<double[]> points, final int index) {
+        double[] values = new double[points.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = points.get(i)[index];
+        }
+        Arrays.sort(values);
+        int middle = values.length / 2;
+        return values.length % 2 == 1 ? values[middle] : (values[middle - 1] + values[middle]) / 2.0;
+    }
+
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright 1997-2025 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import org.ojalgo.benchmark.AbstractBenchmark.Configuration;
+import org.ojalgo.benchmark.AbstractBenchmark.FailReason;
+import org.ojalgo.benchmark.AbstractBenchmark.ModelSize;
+import org.ojalgo.benchmark.AbstractBenchmark.ModelSolverPair;
+import org.ojalgo.benchmark.AbstractBenchmark.ResultsSet;
+
+/**
+ * Executes the model/solver pairs of an iteration in (predicted) longest-first order. This is the classic
+ * LPT list-scheduling heuristic for minimising the makespan on parallel slots. The next pair is chosen when a
+ * slot becomes free, not up front. Predictions made then use everything measured so far, including results
+ * that arrived during the current iteration.
+ * <p>
+ * A pair's runtime is predicted as follows:
+ * <ol>
+ * <li>From its own history: the fastest measured time (from this run, a resumed journal or a
+ * {@link Configuration#history} journal), or {@link Configuration#maxWaitTime} if it failed.
+ * <li>From the model size: the solver's median time per model "size" unit (variables + expressions),
+ * observed over the models it has solved, multiplied by this model's size. If the solver has no history
+ * yet, the median across all solvers is used.
+ * <li>Pairs with no size information at all are scheduled first, since they may well be the long ones.
+ * </ol>
+ * In {@link Configuration#racing} mode the reference solver's pairs are always taken before any others.
+ */
+final class Scheduler {
+
+    private static double size(final ModelSize modelSize) {
+        return Math.max(1.0, modelSize.nbVariables + modelSize.nbExpressions);
+    }
+
+    private static double median(final double[] values, final int length) {
+        if (length == 0) {
+            return Double.NaN;
+        }
+        double[] sorted = Arrays.copyOf(values, length);
+        Arrays.sort(sorted);
+        return length % 2 == 1 ? sorted[length / 2] : (sorted[length / 2 - 1] + sorted[length / 2]) / 2.0;
+    }
+
+    private final Configuration myConfiguration;
+    private final Map<ModelSolverPair, ResultsSet> myHistory = new ConcurrentHashMap<>();
+    private final Map<String, ModelSize> myModelSizes;
+    private final Map<ModelSolverPair, FailReason> myReasons;
+    private final Map<ModelSolverPair, ResultsSet> myResults;
+
+    Scheduler(final Configuration configuration, final Map<ModelSolverPair, ResultsSet> totResults, final Map<ModelSolverPair, FailReason> totReasons,
+            final Map<String, ModelSize> modDim) {
+
+        super();
+
+        myConfiguration = configuration;
+        myResults = totResults;
+        myReasons = totReasons;
+        myModelSizes = modDim;
+    }
+
+    /**
+     * Add the measurements of a previous run - only used to predict runtimes.
+     */
+    void learn(final String journal, final Collection<ModelSolverPair> work) {
+        Map<ModelSolverPair, FailReason> ignore = new HashMap<>();
+        ResultsJournal.replay(journal, myConfiguration, Set.copyOf(work), myHistory, ignore, myModelSizes);
+    }
+
+    /**
+     * Predicted runtime (ms), or +Inf if nothing is known.
+     */
+    double predict(final ModelSolverPair pair, final Map<String, Double> rates, final double defaultRate) {
+
+        if (myReasons.containsKey(pair)) {
+            return myConfiguration.maxWaitTime;
+        }
+
+        double measured = this.measured(pair);
+        if (!Double.isNaN(measured)) {
+            return measured;
+        }
+
+        ModelSize modelSize = myModelSizes.get(pair.model);
+        if (modelSize == null) {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        double rate = rates.getOrDefault(pair.solver, defaultRate);
+        if (Double.isNaN(rate)) {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        return rate * Scheduler.size(modelSize);
+    }
+
+    /**
+     * Process all the work using (at most) parallelism concurrent slots. Returns when all are done.
+     */
+    void process(final Collection<ModelSolverPair> work, final int parallelism, final Consumer<ModelSolverPair> processor) {
+
+        List<ModelSolverPair> remaining = new ArrayList<>(work);
+        remaining.sort(null);
+
+        int nbSlots = Math.max(1, Math.min(parallelism, remaining.size()));
+
+        ExecutorService slots = Executors.newFixedThreadPool(nbSlots);
+
+        try {
+
+            List<Future<?>> futures = new ArrayList<>(nbSlots);
+            for (int s = 0; s < nbSlots; s++) {
+                futures.add(slots.submit(() -> {
+                    ModelSolverPair next;
+                    while ((next = this.next(remaining)) != null) {
+                        processor.accept(next);
+                    }
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+
+        } catch (InterruptedException | ExecutionException cause) {
+            throw new RuntimeException(cause);
+        } finally {
+            slots.shutdownNow();
+        }
+    }
+
+    private double measured(final ModelSolverPair pair) {
+        ResultsSet resultsSet = myResults.get(pair);
+        if (resultsSet == null || resultsSet.fastest == null) {
+            resultsSet = myHistory.get(pair);
+        }
+        if (resultsSet == null || resultsSet.fastest == null) {
+            return Double.NaN;
+        }
+        if (resultsSet.fastest == AbstractBenchmark.FAILED) {
+            return myConfiguration.maxWaitTime;
+        }
+        return resultsSet.fastest.duration.toDurationInMillis();
+    }
+
+    /**
+     * Choose (and remove) the remaining pair with the longest predicted runtime.
+     */
+    private synchronized ModelSolverPair next(final List<ModelSolverPair> remaining) {
+
+        if (remaining.isEmpty()) {
+            return null;
+        }
+
+        Map<String, Double> rates = new HashMap<>();
+        double defaultRate = this.rates(rates);
+
+        // When racing the reference solver's pairs go first, as they set the time limits for the others
+        String first = myConfiguration.racing ? myConfiguration.refeenceSolver : null;
+
+        int longest = 0;
+        boolean longestFirst = false;
+        double longestTime = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < remaining.size(); i++) {
+            ModelSolverPair pair = remaining.get(i);
+            boolean isFirst = pair.solver.equals(first);
+            if (longestFirst && !isFirst) {
+                continue;
+            }
+            double predicted = this.predict(pair, rates, defaultRate);
+            if (isFirst && !longestFirst || predicted > longestTime) {
+                longest = i;
+                longestFirst = isFirst;
+                longestTime = predicted;
+            }
+        }
+
+        return remaining.remove(longest);
+    }
+
+    /**
+     * Per solver median time per size unit. Returns the median across all solvers.
+     */
+    private double rates(final Map<String, Double> rates) {
+
+        Map<String, double[]> samples = new HashMap<>();
+        Map<String, Integer> counts = new HashMap<>();
+        double[] all = new double[16];
+        int nbAll = 0;
+
+        Set<ModelSolverPair> known = new HashSet<>(myHistory.keySet());
+        known.addAll(myResults.keySet());
+
+        for (ModelSolverPair pair : known) {
+
+            ModelSize modelSize = myModelSizes.get(pair.model);
+            double measured = this.measured(pair);
+
+            if (modelSize == null || Double.isNaN(measured) || myReasons.containsKey(pair)) {
+                continue;
+            }
+
+            double rate = measured / Scheduler.size(modelSize);
+
+            int count = counts.getOrDefault(pair.solver, 0);
+            double[] solverSamples = samples.computeIfAbsent(pair.solver, k -> new double[16]);
+            if (count == solverSamples.length) {
+                solverSamples = Arrays.copyOf(solverSamples, 2 * count);
+                samples.put(pair.solver, solverSamples);
+            }
+            solverSamples[count] = rate;
+            counts.put(pair.solver, count + 1);
+
+            if (nbAll == all.length) {
+                all = Arrays.copyOf(all, 2 * nbAll);
+            }
+            all[nbAll++] = rate;
+        }
+
+        for (Map.Entry<String, double[]> entry : samples.entrySet()) {
+            rates.put(entry.getKey(), Scheduler.median(entry.getValue(), counts.get(entry.getKey())));
+        }
+
+        return Scheduler.median(all, nbAll);
+    }
+
+}
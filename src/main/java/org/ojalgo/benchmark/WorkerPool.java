@@ -0,0 +1,512 @@
+/*
+ * Copyright 1997-2025 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.benchmark;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.ProcessBuilder.Redirect;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+
+import org.ojalgo.benchmark.ForkedTask.Request;
+import org.ojalgo.benchmark.ForkedTask.ReturnValue;
+import org.ojalgo.netio.BasicLogger;
+
+/**
+ * Long-lived worker JVMs, pooled per solver, that each execute many {@link Request}s. A worker is recycled
+ * (its JVM terminated) after a configurable number of tasks, and immediately whenever a task fails or times
+ * out. That keeps the fault isolation of forking without paying JVM startup, class loading and native
+ * library loading for every measurement.
+ * <p>
+ * The number of live (running or idle) workers is capped at the number of concurrent slots. Idle workers
+ * dedicated to other solvers are evicted to make room, so they don't compete for memory and cores with the
+ * ones measuring.
+ * <p>
+ * When pinning, each concurrently running worker is bound (with taskset, on Linux) to its own disjoint set
+ * of CPUs, and told (-XX:ActiveProcessorCount) to size its thread pools accordingly. Parallel measurements
+ * then don't compete for cores and caches the way unpinned workers do.
+ */
+final class WorkerPool implements AutoCloseable {
+
+    static final class Worker implements AutoCloseable {
+
+        /**
+         * The CPUs this worker is pinned to, or null
+         */
+        final String cpuSet;
+
+        private final Process myProcess;
+        private final ObjectOutputStream myRequests;
+        private ObjectInputStream myResponses = null;
+        private int myTasks = 0;
+
+        Worker(final List<String> command, final String cpuSet) throws IOException {
+
+            super();
+
+            this.cpuSet = cpuSet;
+
+            ProcessBuilder builder = new ProcessBuilder(command);
+            builder.redirectError(Redirect.INHERIT);
+
+            myProcess = builder.start();
+
+            myRequests = new ObjectOutputStream(new BufferedOutputStream(myProcess.getOutputStream()));
+            myRequests.flush();
+        }
+
+        @Override
+        public void close() {
+            try {
+                myRequests.close();
+                if (!myProcess.waitFor(1L, TimeUnit.SECONDS)) {
+                    myProcess.destroyForcibly();
+                }
+            } catch (Exception cause) {
+                myProcess.destroyForcibly();
+            }
+        }
+
+        int countTasks() {
+            return myTasks;
+        }
+
+        /**
+         * @param loadTimeout ms, to start the worker JVM (if not already running) and load the model
+         * @param timeout ms, to solve the model once loaded
+         */
+        ReturnValue execute(final Request request, final long loadTimeout, final long timeout)
+                throws InterruptedException, ExecutionException, TimeoutException {
+
+            Future<Object> future = CHANNEL.submit(() -> {
+
+                myRequests.writeObject(request);
+                myRequests.reset();
+                myRequests.flush();
+
+                if (myResponses == null) {
+                    // Reads the stream header, blocks until the worker JVM is up
+                    myResponses = new ObjectInputStream(new BufferedInputStream(myProcess.getInputStream()));
+                }
+
+                return myResponses.readObject();
+            });
+
+            try {
+
+                Object response = future.get(loadTimeout, TimeUnit.MILLISECONDS);
+
+                if (ForkedTask.LOADED.equals(response)) {
+                    future = CHANNEL.submit(() -> myResponses.readObject());
+                    response = future.get(timeout, TimeUnit.MILLISECONDS);
+                }
+
+                myTasks++;
+
+                if (response instanceof ReturnValue returnValue) {
+                    return returnValue;
+                } else {
+                    throw new ExecutionException(new IllegalStateException(String.valueOf(response)));
+                }
+
+            } catch (InterruptedException | ExecutionException | TimeoutException cause) {
+
+                future.cancel(true);
+                myProcess.destroyForcibly();
+
+                throw cause;
+            }
+        }
+
+        boolean isAlive() {
+            return myProcess.isAlive();
+        }
+
+    }
+
+    /**
+     * Blocking reads/writes on the worker pipes, so that the master can time out.
+     */
+    static final ExecutorService CHANNEL = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "worker-channel");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The main ojAlgo jar, but not the tests jar or any of the solver integrations
+     */
+    static final Pattern OJALGO_JAR = Pattern.compile("ojalgo-\\d+(\\.\\d+)*(-SNAPSHOT)?\\.jar");
+
+    static final boolean LINUX = System.getProperty("os.name", "").toLowerCase().contains("linux");
+
+    /**
+     * This JVM's classpath, but with the ojAlgo jar replaced if the solver (contender) specifies an ojAlgo
+     * version or jar file. A version is looked up in the local Maven repository, so it has to be downloaded
+     * first (mvn dependency:get -Dartifact=org.ojalgo:ojalgo:&lt;version&gt;).
+     */
+    static String classpath(final String solver) throws IOException {
+
+        String classpath = System.getProperty("java.class.path");
+
+        String version = AbstractBenchmark.Contender.version(solver);
+        if (version == null) {
+            return classpath;
+        }
+
+        Path jar;
+        if (version.endsWith(".jar")) {
+            jar = Path.of(version);
+        } else {
+            Path repository = Path.of(System.getProperty("maven.repo.local", Path.of(System.getProperty("user.home"), ".m2", "repository").toString()));
+            jar = repository.resolve(Path.of("org", "ojalgo", "ojalgo", version, "ojalgo-" + version + ".jar"));
+        }
+        if (!Files.isRegularFile(jar)) {
+            throw new IOException("No ojAlgo jar for " + solver + ": " + jar);
+        }
+
+        List<String> entries = new ArrayList<>();
+        entries.add(jar.toAbsolutePath().toString());
+        for (String entry : classpath.split(File.pathSeparator)) {
+            if (!OJALGO_JAR.matcher(Path.of(entry).getFileName().toString()).matches()) {
+                entries.add(entry);
+            }
+        }
+
+        return String.join(File.pathSeparator, entries);
+    }
+
+    /**
+     * The CPUs this process may run on. On Linux that's the Cpus_allowed_list of /proc/self/status (in a
+     * container, or under taskset, not necessarily 0..n-1), otherwise 0 to the number of available processors.
+     */
+    static List<Integer> allowedCpus() {
+
+        if (LINUX) {
+            try {
+                for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+                    if (line.startsWith("Cpus_allowed_list:")) {
+                        List<Integer> cpus = WorkerPool.parseCpuList(line.substring("Cpus_allowed_list:".length()));
+                        if (!cpus.isEmpty()) {
+                            return cpus;
+                        }
+                    }
+                }
+            } catch (IOException | RuntimeException cause) {
+                BasicLogger.error("Failed to read the CPU affinity: {}", cause);
+            }
+        }
+
+        int nbProcessors = Runtime.getRuntime().availableProcessors();
+        List<Integer> retVal = new ArrayList<>(nbProcessors);
+        for (int i = 0; i < nbProcessors; i++) {
+            retVal.add(i);
+        }
+        return retVal;
+    }
+
+    /**
+     * Split the CPUs in to (at most) that many disjoint, equally sized, sets formatted for taskset.
+     */
+    static List<String> cpuSets(final List<Integer> cpus, final int nbSets) {
+
+        int nbSlots = Math.max(1, Math.min(nbSets, cpus.size()));
+        int perSlot = cpus.size() / nbSlots;
+
+        List<String> retVal = new ArrayList<>(nbSlots);
+        for (int s = 0; s < nbSlots; s++) {
+            retVal.add(WorkerPool.formatCpuList(cpus.subList(s * perSlot, (s + 1) * perSlot)));
+        }
+        return retVal;
+    }
+
+    /**
+     * "0-2,5" for [0, 1, 2, 5]
+     */
+    static String formatCpuList(final List<Integer> cpus) {
+
+        StringBuilder retVal = new StringBuilder();
+
+        for (int i = 0; i < cpus.size();) {
+            int j = i;
+            while (j + 1 < cpus.size() && cpus.get(j + 1) == cpus.get(j) + 1) {
+                j++;
+            }
+            if (retVal.length() > 0) {
+                retVal.append(',');
+            }
+            retVal.append(cpus.get(i));
+            if (j > i) {
+                retVal.append('-').append(cpus.get(j));
+            }
+            i = j + 1;
+        }
+
+        return retVal.toString();
+    }
+
+    /**
+     * [0, 1, 2, 5] for "0-2,5" (the Linux cpu list format)
+     */
+    static List<Integer> parseCpuList(final String list) {
+
+        List<Integer> retVal = new ArrayList<>();
+
+        for (String part : list.trim().split(",")) {
+            if (part.isBlank()) {
+                continue;
+            }
+            int dash = part.indexOf('-');
+            if (dash < 0) {
+                retVal.add(Integer.parseInt(part.trim()));
+            } else {
+                int first = Integer.parseInt(part.substring(0, dash).trim());
+                int last = Integer.parseInt(part.substring(dash + 1).trim());
+                for (int cpu = first; cpu <= last; cpu++) {
+                    retVal.add(cpu);
+                }
+            }
+        }
+
+        return retVal;
+    }
+
+    private final List<Worker> myAll = Collections.synchronizedList(new ArrayList<>());
+    /**
+     * Free CPU sets, null when not pinning
+     */
+    private final Queue<String> myCpuSets;
+    private final int myCpusPerWorker;
+    private final Map<String, Queue<Worker>> myIdle = new ConcurrentHashMap<>();
+    private final List<String> myJvmOptions;
+    private final int myMaxTasksPerWorker;
+    /**
+     * Max number of live workers, 0 means no limit
+     */
+    private final int mySlots;
+
+    WorkerPool(final int maxTasksPerWorker) {
+        this(maxTasksPerWorker, Collections.emptyList());
+    }
+
+    WorkerPool(final int maxTasksPerWorker, final List<String> jvmOptions) {
+        this(maxTasksPerWorker, jvmOptions, 0, false);
+    }
+
+    /**
+     * @param slots The number of workers that will run concurrently, and the max number of live workers. 0
+     *        means no limit.
+     * @param pinned Pin each slot's worker to its own CPU set (requires slots > 0)
+     */
+    WorkerPool(final int maxTasksPerWorker, final List<String> jvmOptions, final int slots, final boolean pinned) {
+
+        super();
+
+        myMaxTasksPerWorker = Math.max(1, maxTasksPerWorker);
+        myJvmOptions = jvmOptions;
+        mySlots = Math.max(0, slots);
+
+        if (pinned && slots > 0) {
+            List<Integer> cpus = WorkerPool.allowedCpus();
+            List<String> cpuSets = WorkerPool.cpuSets(cpus, slots);
+            myCpuSets = new ConcurrentLinkedQueue<>(cpuSets);
+            myCpusPerWorker = Math.max(1, cpus.size() / cpuSets.size());
+            if (!LINUX) {
+                BasicLogger.debug("CPU pinning requires Linux (taskset) - only capping the workers' processor count");
+            }
+        } else {
+            myCpuSets = null;
+            myCpusPerWorker = 0;
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (myAll) {
+            for (Worker worker : myAll) {
+                worker.close();
+                if (myCpuSets != null && worker.cpuSet != null) {
+                    myCpuSets.offer(worker.cpuSet);
+                }
+            }
+            myAll.clear();
+        }
+        myIdle.clear();
+    }
+
+    /**
+     * Execute the request in a (possibly reused) worker dedicated to the request's solver. The same timeout
+     * applies to starting the worker and loading the model, as to solving it.
+     */
+    ReturnValue execute(final Request request, final long timeout) throws InterruptedException, ExecutionException, TimeoutException {
+        return this.execute(request, timeout, timeout);
+    }
+
+    /**
+     * Execute the request in a (possibly reused) worker dedicated to the request's solver.
+     *
+     * @param loadTimeout ms, to start the worker JVM (if not already running) and load the model
+     * @param timeout ms, to solve the model once loaded
+     */
+    ReturnValue execute(final Request request, final long loadTimeout, final long timeout)
+            throws InterruptedException, ExecutionException, TimeoutException {
+
+        Worker worker = this.borrow(request.solver);
+
+        boolean healthy = false;
+        try {
+
+            ReturnValue returnValue = worker.execute(request, loadTimeout, timeout);
+
+            healthy = true;
+
+            return returnValue;
+
+        } finally {
+
+            if (healthy && worker.isAlive() && worker.countTasks() < myMaxTasksPerWorker) {
+                myIdle.computeIfAbsent(request.solver, key -> new ConcurrentLinkedQueue<>()).offer(worker);
+            } else {
+                this.retire(worker);
+            }
+        }
+    }
+
+    private Worker borrow(final String solver) throws ExecutionException {
+
+        Queue<Worker> idle = myIdle.computeIfAbsent(solver, key -> new ConcurrentLinkedQueue<>());
+
+        Worker worker;
+        while ((worker = idle.poll()) != null) {
+            if (worker.isAlive()) {
+                return worker;
+            }
+            this.retire(worker);
+        }
+
+        if (myCpuSets == null) {
+            if (mySlots > 0) {
+                // Atomic, or concurrent borrowers could all see room for one more
+                synchronized (myAll) {
+                    if (myAll.size() >= mySlots) {
+                        // All slots are held by (idle) workers dedicated to other solvers
+                        this.evictIdle();
+                    }
+                    return this.start(null, solver);
+                }
+            } else {
+                return this.start(null, solver);
+            }
+        }
+
+        String cpuSet;
+        // Atomic, or another thread could take the CPU set freed by evicting
+        synchronized (myCpuSets) {
+            cpuSet = myCpuSets.poll();
+            if (cpuSet == null) {
+                // All CPU sets are held by (idle) workers dedicated to other solvers
+                this.evictIdle();
+                cpuSet = myCpuSets.poll();
+            }
+        }
+        if (cpuSet == null) {
+            throw new ExecutionException(new IllegalStateException("No free CPU set!"));
+        }
+
+        return this.start(cpuSet, solver);
+    }
+
+    private List<String> command(final String cpuSet, final String solver) throws IOException {
+
+        List<String> command = new ArrayList<>();
+
+        if (cpuSet != null && LINUX) {
+            command.add("taskset");
+            command.add("-c");
+            command.add(cpuSet);
+        }
+
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (myCpusPerWorker > 0) {
+            command.add("-XX:ActiveProcessorCount=" + myCpusPerWorker);
+        }
+        command.addAll(myJvmOptions);
+        command.add("-cp");
+        command.add(WorkerPool.classpath(solver));
+        command.add(ForkedTask.class.getName());
+
+        return command;
+    }
+
+    private void evictIdle() {
+        for (Queue<Worker> idle : myIdle.values()) {
+            Worker worker = idle.poll();
+            if (worker != null) {
+                this.retire(worker);
+                return;
+            }
+        }
+    }
+
+    private void retire(final Worker worker) {
+        myAll.remove(worker);
+        worker.close();
+        if (myCpuSets != null && worker.cpuSet != null) {
+            myCpuSets.offer(worker.cpuSet);
+        }
+    }
+
+    private Worker start(final String cpuSet, final String solver) throws ExecutionException {
+
+        Worker worker;
+        try {
+            worker = new Worker(this.command(cpuSet, solver), cpuSet);
+        } catch (IOException cause) {
+            if (cpuSet != null) {
+                myCpuSets.offer(cpuSet);
+            }
+            throw new ExecutionException(cause);
+        }
+        myAll.add(worker);
+
+        return worker;
+    }
+
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 1997-2025 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.ojalgo.benchmark.AbstractBenchmark.Contender;
+import org.ojalgo.optimisation.ExpressionsBasedModel;
+import org.ojalgo.optimisation.Optimisation;
+import org.ojalgo.type.CalendarDateUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Timeout;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH version of the MIPLIB 2017 runs. The solves are long, so each invocation is timed separately
+ * (single-shot) rather than looped, and each one solves a fresh copy of the model. With relax=true only the LP
+ * relaxation is solved. A solve that doesn't reach an optimal solution (before the solver's own time limit)
+ * fails the benchmark rather than being reported as a time. The .mps.gz files are read from the classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@Timeout(time = 5, timeUnit = TimeUnit.MINUTES)
+public class MIPLIB2017JMH {
+
+    public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder().parent(new CommandLineOptions(args)).include(MIPLIB2017JMH.class.getSimpleName()).build()).run();
+    }
+
+    @Param({ Contender.OJALGO, Contender.ORTOOLS })
+    public String contender;
+
+    /**
+     * A hand-picked subset of the MIPLIB 2017 instances (small ones, with a known optimal value, that solve
+     * within the time limit) - any other instance in src/test/resources/MIPLIB2017 can be given with
+     * -p model=...
+     */
+    @Param({ "gen-ip002", "gen-ip054", "markshare_4_0", "mas74", "mas76", "neos5", "pk1" })
+    public String model;
+
+    @Param({ "true", "false" })
+    public boolean relax;
+
+    private ExpressionsBasedModel myModel;
+    private Optimisation.Sense mySense;
+    private ExpressionsBasedModel mySimplified;
+
+    @Setup(Level.Iteration)
+    public void copy() {
+        // Solving sets variable values (a warm start for the next solve) - start over every time
+        myModel = mySimplified.copy();
+        // Let the solver abort by itself, before JMH's @Timeout interrupts it
+        myModel.options.time_abort = 4L * CalendarDateUnit.MINUTE.toDurationInMillis();
+    }
+
+    @Benchmark
+    public Optimisation.Result solve() {
+
+        Optimisation.Result result = AbstractBenchmark.solve(myModel, mySense);
+
+        if (!result.getState().isOptimal()) {
+            throw new IllegalStateException(model + " " + contender + ": " + result.getState());
+        }
+
+        return result;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+
+        AbstractBenchmark.register(contender);
+
+        MPSReader.Parsed read = AbstractBenchmark.parse("/MIPLIB2017/" + model + ".mps.gz");
+        ExpressionsBasedModel parsed = read.model;
+        mySense = read.sense;
+
+        if (relax) {
+            parsed.relax(false);
+        }
+
+        mySimplified = parsed.simplify();
+    }
+
+}
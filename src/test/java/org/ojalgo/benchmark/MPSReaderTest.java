@@ -0,0 +1,192 @@
+/*
+ * Copyright 1997-2025 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.netio.BasicLogger;
+import org.ojalgo.optimisation.Expression;
+import org.ojalgo.optimisation.ExpressionsBasedModel;
+import org.ojalgo.optimisation.ExpressionsBasedModel.FileFormat;
+import org.ojalgo.optimisation.Optimisation;
+import org.ojalgo.optimisation.Variable;
+import org.ojalgo.type.CalendarDateUnit;
+
+/**
+ * The {@link MPSReader} should produce the same model as
+ * {@link ExpressionsBasedModel#parse(InputStream, FileFormat)} - apart from the objective function being
+ * variable weights rather than an expression.
+ */
+public final class MPSReaderTest {
+
+    static final Path DIRECTORY = Path.of("./src/test/resources/MIPLIB2017");
+    /**
+     * Files with MI bounds. When an UP bound follows, ojAlgo's parser sets the lower bound to 0 - the MPS
+     * format, and {@link MPSReader}, keeps it free.
+     */
+    static final Set<String> MI_BOUNDS = Set.of("neos-3656078-kumeu.mps.gz");
+    /**
+     * The relaxed LP objective is compared for models up to this size (same as the RELAXED_LP runs)
+     */
+    static final int SIZE_LIMIT = 2_000;
+
+    private static void assertSameLimits(final String name, final BigDecimal expected, final BigDecimal actual) {
+        if (expected == null) {
+            assertEquals(null, actual, name);
+        } else {
+            assertEquals(expected.doubleValue(), actual != null ? actual.doubleValue() : Double.NaN, 0.0, name);
+        }
+    }
+
+    private static void assertSameModel(final String fileName, final ExpressionsBasedModel parsed, final MPSReader.Parsed streamed) {
+
+        ExpressionsBasedModel model = streamed.model;
+
+        assertEquals(parsed.getOptimisationSense(), streamed.sense, fileName);
+
+        // The objective function is an expression without limits (there may be more than one free row)
+        Expression objective = null;
+        int nbConstraints = 0;
+        for (Expression expression : parsed.getExpressions()) {
+            if (expression.isConstraint()) {
+                nbConstraints++;
+            } else if (objective == null && expression.getContributionWeight() != null) {
+                objective = expression;
+            }
+        }
+
+        int nbVariables = model.countVariables();
+        if (nbVariables > 0 && "OBJECTIVE_CONSTANT".equals(model.getVariable(nbVariables - 1).getName())) {
+            nbVariables--;
+        }
+
+        assertEquals(parsed.countVariables(), nbVariables, fileName);
+        assertEquals(nbConstraints, model.countExpressions(), fileName);
+
+        for (int j = 0; j < nbVariables; j++) {
+
+            Variable variableP = parsed.getVariable(j);
+            Variable variableS = model.getVariable(j);
+            String name = fileName + " " + variableP.getName();
+
+            assertEquals(variableP.getName(), variableS.getName(), name);
+            assertEquals(variableP.isInteger(), variableS.isInteger(), name);
+            if (variableS.getLowerLimit() != null || !MI_BOUNDS.contains(fileName)) {
+                MPSReaderTest.assertSameLimits(name, variableP.getLowerLimit(), variableS.getLowerLimit());
+            }
+            MPSReaderTest.assertSameLimits(name, variableP.getUpperLimit(), variableS.getUpperLimit());
+
+            BigDecimal cost = objective != null ? objective.get(variableP) : BigDecimal.ZERO;
+            BigDecimal weight = variableS.getContributionWeight();
+            assertEquals(cost.doubleValue(), weight != null ? weight.doubleValue() : 0.0, 0.0, name);
+        }
+
+        for (Expression expressionS : model.getExpressions()) {
+
+            Expression expressionP = parsed.getExpression(expressionS.getName());
+            String name = fileName + " " + expressionS.getName();
+
+            assertEquals(true, expressionP != null, name);
+            assertEquals(expressionP.getLinearEntrySet().size(), expressionS.getLinearEntrySet().size(), name);
+            MPSReaderTest.assertSameLimits(name, expressionP.getLowerLimit(), expressionS.getLowerLimit());
+            MPSReaderTest.assertSameLimits(name, expressionP.getUpperLimit(), expressionS.getUpperLimit());
+        }
+    }
+
+    private static void assertSameRelaxedObjective(final String fileName, final ExpressionsBasedModel parsed, final MPSReader.Parsed streamed) {
+
+        parsed.relax(false);
+        streamed.model.relax(false);
+
+        parsed.options.time_abort = CalendarDateUnit.MINUTE.toDurationInMillis();
+        streamed.model.options.time_abort = CalendarDateUnit.MINUTE.toDurationInMillis();
+
+        Optimisation.Result resultP = AbstractBenchmark.solve(parsed);
+        Optimisation.Result resultS = streamed.solve();
+
+        if (resultP.getState().isOptimal() && resultS.getState().isOptimal()) {
+            double value = resultP.getValue();
+            assertEquals(value, resultS.getValue(), 1E-6 * Math.max(1.0, Math.abs(value)), fileName);
+        } else {
+            BasicLogger.debug("{}: relaxed objective not compared, {} and {}", fileName, resultP.getState(), resultS.getState());
+        }
+    }
+
+    private static MPSReader.Parsed read(final String mps) throws IOException {
+        return MPSReader.read(Channels.newChannel(new ByteArrayInputStream(mps.getBytes(StandardCharsets.ISO_8859_1))));
+    }
+
+    /**
+     * A negative UP bound implies a free lower bound only if no lower bound was given
+     */
+    @Test
+    void testExplicitLowerBound() throws IOException {
+
+        String columns = "NAME TEST\nROWS\n N COST\n L LIM\nCOLUMNS\n X COST 1 LIM 1\n Y COST 1 LIM 1\nRHS\n RHS LIM 1\nBOUNDS\n";
+
+        MPSReader.Parsed parsed = MPSReaderTest.read(columns + " LO BND X 0\n UP BND X -1\n UP BND Y -1\nENDATA\n");
+
+        assertEquals(0.0, parsed.model.getVariable(0).getLowerLimit().doubleValue(), 0.0, "X lower");
+        assertEquals(-1.0, parsed.model.getVariable(0).getUpperLimit().doubleValue(), 0.0, "X upper");
+        assertEquals(null, parsed.model.getVariable(1).getLowerLimit(), "Y lower");
+        assertEquals(-1.0, parsed.model.getVariable(1).getUpperLimit().doubleValue(), 0.0, "Y upper");
+    }
+
+    @Test
+    void testMIPLIB2017() throws IOException {
+
+        List<String> fileNames;
+        try (Stream<Path> files = Files.list(DIRECTORY)) {
+            fileNames = files.map(file -> file.getFileName().toString()).filter(name -> name.endsWith(".mps.gz")).sorted().toList();
+        }
+
+        for (String fileName : fileNames) {
+
+            ExpressionsBasedModel parsed;
+            try (InputStream input = new GZIPInputStream(Files.newInputStream(DIRECTORY.resolve(fileName)))) {
+                parsed = ExpressionsBasedModel.parse(input, FileFormat.MPS);
+            }
+            MPSReader.Parsed streamed = MPSReader.read(DIRECTORY.resolve(fileName));
+
+            MPSReaderTest.assertSameModel(fileName, parsed, streamed);
+
+            if (parsed.countVariables() <= SIZE_LIMIT && parsed.countExpressions() <= SIZE_LIMIT) {
+                MPSReaderTest.assertSameRelaxedObjective(fileName, parsed, streamed);
+            }
+        }
+    }
+
+}
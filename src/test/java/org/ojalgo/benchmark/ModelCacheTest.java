@@ -0,0 +1,160 @@
+/*
+ * Copyright 1997-2025 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.optimisation.Expression;
+import org.ojalgo.optimisation.ExpressionsBasedModel;
+import org.ojalgo.optimisation.Optimisation;
+import org.ojalgo.optimisation.Variable;
+
+/**
+ * A model rebuilt from the {@link ModelCache} should be the same as the parsed and simplified model it was
+ * written from - same variables, expressions, bounds, integer flags and optimal objective value.
+ */
+public final class ModelCacheTest {
+
+    static final String[] MODELS = { "/MIPLIB2017/gen-ip054.mps.gz", "/MIPLIB2017/markshare_4_0.mps.gz", "/MIPLIB2017/neos5.mps.gz",
+            "/MIPLIB2017/pk1.mps.gz" };
+
+    private static void assertSameLimits(final String name, final BigDecimal expected, final BigDecimal actual) {
+        if (expected == null) {
+            assertEquals(null, actual, name);
+        } else {
+            assertEquals(expected.doubleValue(), actual.doubleValue(), 0.0, name);
+        }
+    }
+
+    private static ModelCache.Entry assertSameModel(final String modelFilePath, final boolean relax) {
+
+        MPSReader.Parsed read = AbstractBenchmark.parse(modelFilePath);
+        ExpressionsBasedModel parsed = read.model;
+        if (relax) {
+            parsed.relax(false);
+        }
+        ExpressionsBasedModel expected = parsed.simplify();
+
+        ModelCache.Entry cached = ModelCache.load(modelFilePath, relax);
+        ExpressionsBasedModel actual = cached.model;
+
+        assertEquals(read.sense, cached.sense, modelFilePath);
+        assertEquals(parsed.countVariables(), cached.nbVariables, modelFilePath);
+        assertEquals(parsed.countExpressions(), cached.nbExpressions, modelFilePath);
+
+        assertEquals(expected.countVariables(), actual.countVariables(), modelFilePath);
+        for (int j = 0; j < expected.countVariables(); j++) {
+            Variable variableE = expected.getVariable(j);
+            Variable variableA = actual.getVariable(j);
+            String name = modelFilePath + " " + variableE.getName();
+            assertEquals(variableE.getName(), variableA.getName(), name);
+            assertEquals(variableE.isInteger(), variableA.isInteger(), name);
+            ModelCacheTest.assertSameLimits(name, variableE.getLowerLimit(), variableA.getLowerLimit());
+            ModelCacheTest.assertSameLimits(name, variableE.getUpperLimit(), variableA.getUpperLimit());
+            ModelCacheTest.assertSameLimits(name, variableE.getContributionWeight(), variableA.getContributionWeight());
+        }
+
+        List<Expression> expressionsE = new ArrayList<>(expected.getExpressions());
+        List<Expression> expressionsA = new ArrayList<>(actual.getExpressions());
+        assertEquals(expressionsE.size(), expressionsA.size(), modelFilePath);
+        for (int i = 0; i < expressionsE.size(); i++) {
+            Expression expressionE = expressionsE.get(i);
+            Expression expressionA = expressionsA.get(i);
+            String name = modelFilePath + " " + expressionE.getName();
+            assertEquals(expressionE.getName(), expressionA.getName(), name);
+            assertEquals(expressionE.getLinearEntrySet().size(), expressionA.getLinearEntrySet().size(), name);
+            ModelCacheTest.assertSameLimits(name, expressionE.getLowerLimit(), expressionA.getLowerLimit());
+            ModelCacheTest.assertSameLimits(name, expressionE.getUpperLimit(), expressionA.getUpperLimit());
+        }
+
+        if (relax) {
+
+            Optimisation.Result resultE = AbstractBenchmark.solve(expected, read.sense);
+            Optimisation.Result resultA = AbstractBenchmark.solve(actual, cached.sense);
+
+            assertEquals(resultE.getState(), resultA.getState(), modelFilePath);
+            assertEquals(resultE.getValue(), resultA.getValue(), 1E-6 * Math.max(1.0, Math.abs(resultE.getValue())), modelFilePath);
+        }
+
+        return cached;
+    }
+
+    /**
+     * The optimisation sense can't be set on a model rebuilt from the cache - it's kept in the entry.
+     */
+    @Test
+    void testMaximise() {
+
+        ModelCache.Entry cached = ModelCacheTest.assertSameModel("/ModelCache/maximise.mps", true);
+
+        assertEquals(Optimisation.Sense.MAX, cached.sense, "sense");
+        assertEquals(7.0, AbstractBenchmark.solve(cached.model.copy(), cached.sense).getValue(), 1E-9, "objective");
+    }
+
+    /**
+     * Once loaded, a model is found through its index - and a stale index is replaced, not trusted.
+     */
+    @Test
+    void testIndex() throws IOException {
+
+        String modelFilePath = "/ModelCache/maximise.mps";
+
+        ModelCache.load(modelFilePath, false);
+
+        Path index = ModelCache.index(modelFilePath, false);
+        String line = Files.readString(index, StandardCharsets.UTF_8);
+        String name = line.substring(line.lastIndexOf('\t') + 1);
+        assertTrue(Files.exists(ModelCache.DIRECTORY.resolve(name)), name);
+
+        Files.writeString(index, "0:1\tmissing.bin", StandardCharsets.UTF_8);
+
+        ModelCache.Entry cached = ModelCache.load(modelFilePath, false);
+
+        assertEquals(Optimisation.Sense.MAX, cached.sense, "sense");
+        assertEquals(line, Files.readString(index, StandardCharsets.UTF_8), "re-indexed");
+    }
+
+    @Test
+    void testMIPLIB2017() {
+        for (String modelFilePath : MODELS) {
+            ModelCacheTest.assertSameModel(modelFilePath, false);
+        }
+    }
+
+    @Test
+    void testMIPLIB2017Relaxed() {
+        for (String modelFilePath : MODELS) {
+            ModelCacheTest.assertSameModel(modelFilePath, true);
+        }
+    }
+
+}
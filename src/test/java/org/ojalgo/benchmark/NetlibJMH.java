@@ -0,0 +1,98 @@
+/*
+ * Copyright 1997-2025 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.ojalgo.benchmark.AbstractBenchmark.Contender;
+import org.ojalgo.optimisation.ExpressionsBasedModel;
+import org.ojalgo.optimisation.Optimisation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH version of the Netlib LP benchmark. The benchmarks are in the test tree (they're not in the shaded
+ * jar), so run them with the test classpath, e.g. {@code mvn test-compile exec:exec -Dexec.classpathScope=test
+ * -Dexec.executable=java -Dexec.args="-cp %classpath org.ojalgo.benchmark.NetlibJMH -p model=AFIRO,BLEND
+ * -p contender=ORTools -prof gc"}. The Netlib models are read from the classpath (the ojAlgo test
+ * resources). Each invocation solves a fresh copy of the simplified model.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.SampleTime, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(value = 2)
+public class NetlibJMH {
+
+    public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder().parent(new CommandLineOptions(args)).include(NetlibJMH.class.getSimpleName()).build()).run();
+    }
+
+    @Param({ Contender.OJALGO_PRIM_SPARSE, Contender.OJALGO_PRIM_DENSE, Contender.OJALGO_DUAL_SPARSE, Contender.OJALGO_DUAL_DENSE, Contender.ORTOOLS,
+            Contender.HIPPARCHUS })
+    public String contender;
+
+    /**
+     * A hand-picked subset of the (smaller) Netlib models, not the whole corpus - any other Netlib model can be
+     * given with -p model=...
+     */
+    @Param({ "ADLITTLE", "AFIRO", "AGG", "BANDM", "BEACONFD", "BLEND", "BOEING1", "BORE3D", "BRANDY", "CAPRI", "E226", "ISRAEL", "KB2", "LOTFI", "SC105",
+            "SC205", "SC50A", "SC50B", "SCAGR7", "SHARE1B", "SHARE2B", "STOCFOR1" })
+    public String model;
+
+    private ExpressionsBasedModel myModel;
+    private ExpressionsBasedModel mySimplified;
+
+    @Setup(Level.Invocation)
+    public void copy() {
+        // Solving sets variable values (a warm start for the next solve) - start over every time
+        myModel = mySimplified.copy();
+    }
+
+    @Benchmark
+    public Optimisation.Result solve() {
+        return AbstractBenchmark.solve(myModel);
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        AbstractBenchmark.register(contender);
+        mySimplified = AbstractBenchmark.parse("/optimisation/netlib/" + model + ".SIF").model.simplify();
+    }
+
+}
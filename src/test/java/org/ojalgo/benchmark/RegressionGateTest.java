@@ -0,0 +1,106 @@
+/*
+ * Copyright 1997-2025 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.benchmark.AbstractBenchmark.ModelSolverPair;
+
+public final class RegressionGateTest {
+
+    /**
+     * Reference p-values from the exact distribution (enumerating all splits of the ranks)
+     */
+    @Test
+    void testMannWhitney() {
+
+        assertEquals(2.0 / 252.0, RegressionGate.mannWhitney(new double[] { 1, 2, 3, 4, 5 }, new double[] { 6, 7, 8, 9, 10 }), 1E-9,
+                "separated");
+        assertEquals(2.0 / 252.0, RegressionGate.mannWhitney(new double[] { 6, 7, 8, 9, 10 }, new double[] { 1, 2, 3, 4, 5 }), 1E-9,
+                "symmetric");
+        assertEquals(1.0, RegressionGate.mannWhitney(new double[] { 1, 2, 3 }, new double[] { 1, 2, 3 }), 1E-9, "identical");
+        assertEquals(0.2, RegressionGate.mannWhitney(new double[] { 1, 2, 2, 3 }, new double[] { 2, 3, 4, 5 }), 1E-9, "ties");
+        assertEquals(2.0 / 924.0,
+                RegressionGate.mannWhitney(new double[] { 10.1, 10.3, 9.8, 10.0, 10.2, 9.9 }, new double[] { 11.0, 10.4, 10.9, 11.2, 10.8, 10.6 }),
+                1E-9, "timings");
+        assertEquals(2.0 / 20.0, RegressionGate.mannWhitney(new double[] { 1, 2, 3 }, new double[] { 4, 5, 6 }), 1E-9, "3 vs 3");
+
+        assertTrue(Double.isNaN(RegressionGate.mannWhitney(new double[] { 1 }, new double[] { 2, 3 })), "too few samples");
+    }
+
+    /**
+     * Above {@link RegressionGate#EXACT} samples per side the normal approximation is used
+     */
+    @Test
+    void testMannWhitneyApproximation() {
+
+        double[] before = new double[RegressionGate.EXACT + 1];
+        double[] after = new double[RegressionGate.EXACT + 1];
+        for (int i = 0; i < before.length; i++) {
+            before[i] = i;
+            after[i] = before.length + i;
+        }
+
+        assertTrue(RegressionGate.mannWhitney(before, after) < 1E-6, "separated");
+        assertEquals(1.0, RegressionGate.mannWhitney(before, before.clone()), 1E-6, "identical");
+    }
+
+    /**
+     * A fully separated 5-vs-5 slowdown is significant at the default alpha
+     */
+    @Test
+    void testRegression() {
+
+        ModelSolverPair pair = new ModelSolverPair("A", "S");
+        ModelSolverPair other = new ModelSolverPair("B", "S");
+
+        double[] same = { 10, 10, 10, 10, 10 };
+
+        assertTrue(RegressionGate.compare(Map.of(pair, new double[] { 10.0, 10.5, 11.0, 10.2, 10.7 }, other, same),
+                Map.of(pair, new double[] { 12.0, 12.5, 13.0, 12.2, 12.7 }, other, same), 0.10, 0.01), "separated 5 vs 5");
+    }
+
+    /**
+     * Pairs that can't be tested don't fail by themselves, but count towards the geometric mean
+     */
+    @Test
+    void testUntested() {
+
+        ModelSolverPair pair1 = new ModelSolverPair("A", "S");
+        ModelSolverPair pair2 = new ModelSolverPair("B", "S");
+        ModelSolverPair pair3 = new ModelSolverPair("C", "S");
+
+        double[] same = { 10, 10, 10 };
+
+        assertFalse(RegressionGate.compare(Map.of(pair1, new double[] { 10 }, pair2, same, pair3, same),
+                Map.of(pair1, new double[] { 12 }, pair2, same, pair3, same), 0.10, 0.01), "one untested pair slower");
+
+        assertTrue(RegressionGate.compare(Map.of(pair1, new double[] { 10 }), Map.of(pair1, new double[] { 12 }), 0.10, 0.01),
+                "geometric mean slower");
+    }
+
+}
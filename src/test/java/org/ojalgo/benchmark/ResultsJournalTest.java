@@ -0,0 +1,137 @@
+/*
+ * Copyright 1997-2025 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.ojalgo.benchmark.AbstractBenchmark.Configuration;
+import org.ojalgo.benchmark.AbstractBenchmark.FailReason;
+import org.ojalgo.benchmark.AbstractBenchmark.ModelSize;
+import org.ojalgo.benchmark.AbstractBenchmark.ModelSolverPair;
+import org.ojalgo.benchmark.AbstractBenchmark.ResultsSet;
+
+public final class ResultsJournalTest {
+
+    /**
+     * A run killed in the middle of writing a record leaves a torn last line. Resuming should neither merge
+     * the next record with it, nor fail to read the journal.
+     */
+    @Test
+    void testResumeAfterTornRecord(@TempDir final Path directory) throws IOException {
+
+        String path = directory.resolve("journal.tsv").toString();
+
+        ModelSolverPair sampled = new ModelSolverPair("A", "S");
+        ModelSolverPair failed = new ModelSolverPair("B", "S");
+
+        try (ResultsJournal journal = ResultsJournal.open(path, false)) {
+            journal.sample(sampled, new ForkedTask.ReturnValue("1.0", 12.5, 3, 2));
+        }
+
+        Files.writeString(Path.of(path), "B\tS\tSAM", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        try (ResultsJournal journal = ResultsJournal.open(path, true)) {
+            journal.done(failed, FailReason.TIMEOUT);
+        }
+
+        Map<ModelSolverPair, ResultsSet> totResults = new HashMap<>();
+        Map<ModelSolverPair, FailReason> totReasons = new HashMap<>();
+        Map<String, ModelSize> modDim = new HashMap<>();
+
+        Set<ModelSolverPair> done = ResultsJournal.replay(path, new Configuration(), Set.of(sampled, failed), totResults, totReasons, modDim);
+
+        assertEquals(Set.of(failed), done, "done");
+        assertEquals(FailReason.TIMEOUT, totReasons.get(failed), "reason");
+        assertTrue(totResults.containsKey(sampled), "sampled");
+        assertEquals(3, Files.readAllLines(Path.of(path), StandardCharsets.UTF_8).size(), "header and two records");
+    }
+
+    /**
+     * Every solve the worker timed is journalled, and replayed into the same samples as adding the return value
+     * directly
+     */
+    @Test
+    void testEverySampleJournalled(@TempDir final Path directory) throws IOException {
+
+        String path = directory.resolve("journal.tsv").toString();
+
+        ModelSolverPair pair = new ModelSolverPair("A", "S");
+        ForkedTask.ReturnValue returnValue = new ForkedTask.ReturnValue("1.0", 10.0, 3, 2, null, null, null, null, new double[] { 12.0, 10.0, 11.0 });
+
+        try (ResultsJournal journal = ResultsJournal.open(path, false)) {
+            journal.sample(pair, returnValue);
+        }
+
+        Map<ModelSolverPair, ResultsSet> totResults = new HashMap<>();
+
+        ResultsJournal.replay(path, new Configuration(), Set.of(pair), totResults, new HashMap<>(), new HashMap<>());
+
+        ResultsSet direct = new ResultsSet();
+        direct.add(returnValue);
+
+        assertArrayEquals(new double[] { 12.0, 10.0, 11.0 }, direct.getSamples(), "direct");
+        assertArrayEquals(direct.getSamples(), totResults.get(pair).getSamples(), "replayed");
+        assertEquals(10.0, totResults.get(pair).fastest.duration.measure, "fastest");
+    }
+
+    /**
+     * A record with an unknown status is skipped, not an error
+     */
+    @Test
+    void testUnknownStatus(@TempDir final Path directory) throws IOException {
+
+        Path file = directory.resolve("journal.tsv");
+
+        ModelSolverPair wrong = new ModelSolverPair("A", "S");
+        ModelSolverPair garbled = new ModelSolverPair("B", "S");
+
+        try (ResultsJournal journal = ResultsJournal.open(file.toString(), false)) {
+            journal.done(wrong, FailReason.WRONG);
+        }
+
+        // What a torn "B S SAMPLE..." record followed by "B S TIMEOUT" would look like, without the truncation
+        String merged = "B\tS\tSAMB\tS\tTIMEOUT" + "\t".repeat(ResultsJournal.COLUMNS.length) + "\n";
+        Files.writeString(file, merged, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        Map<ModelSolverPair, FailReason> totReasons = new HashMap<>();
+
+        Set<ModelSolverPair> done = ResultsJournal.replay(file.toString(), new Configuration(), Set.of(wrong, garbled), new HashMap<>(), totReasons,
+                new HashMap<>());
+
+        assertEquals(Set.of(wrong), done, "done");
+        assertEquals(Map.of(wrong, FailReason.WRONG), totReasons, "reasons");
+    }
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 1997-2025 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public final class WorkerPoolTest {
+
+    /**
+     * In a container, or under taskset, the allowed CPUs need not be 0..n-1. The sets are taken from that
+     * list, never from CPUs outside it.
+     */
+    @Test
+    void testCpuSets() {
+
+        List<Integer> cpus = WorkerPool.parseCpuList(" 2-5,8,10-12\n");
+
+        assertEquals(List.of(2, 3, 4, 5, 8, 10, 11, 12), cpus, "parsed");
+        assertEquals("2-5,8,10-12", WorkerPool.formatCpuList(cpus), "formatted");
+
+        assertEquals(List.of("2-5", "8,10-12"), WorkerPool.cpuSets(cpus, 2), "2 sets");
+        assertEquals(List.of("2-3", "4-5", "8,10", "11-12"), WorkerPool.cpuSets(cpus, 4), "4 sets");
+        assertEquals(List.of("2-3", "4-5", "8,10"), WorkerPool.cpuSets(cpus, 3), "3 sets");
+        assertEquals(8, WorkerPool.cpuSets(cpus, 16).size(), "at most one set per CPU");
+    }
+
+}
@@ -26,6 +26,7 @@ import java.util.Map.Entry;
 import java.util.Set;
 
 import org.ojalgo.benchmark.AbstractBenchmark;
+import org.ojalgo.benchmark.CorpusIndex;
 import org.ojalgo.concurrent.Parallelism;
 import org.ojalgo.optimisation.convex.CuteMarosMeszarosCase;
 import org.ojalgo.optimisation.convex.CuteMarosMeszarosCase.ModelInfo;
@@ -62,6 +63,7 @@ public final class MarosMeszarosBenchmark extends AbstractBenchmark {
     //            Contender.OJALGO_QP_MINRES_ID, Contender.OJALGO_QP_MINRES_JACOBI, Contender.OJALGO_QP_MINRES_SSORP, Contender.OJALGO_QP_QMR_ID,
     //            Contender.OJALGO_QP_QMR_JACOBI, Contender.OJALGO_QP_QMR_SSORP };
 
+    static final String PATH_PREFIX = "/optimisation/marosmeszaros/";
     static final Set<ModelSolverPair> WORK = new HashSet<>();
 
     private static int MAX_DIM = 1_000;
@@ -73,7 +75,7 @@ public final class MarosMeszarosBenchmark extends AbstractBenchmark {
             ModelInfo modelInfo = CuteMarosMeszarosCase.getModelInfo(mod);
 
             // if (modelInfo.isPureQP() && modelInfo.M <= MAX_DIM && modelInfo.N <= MAX_DIM && modelInfo.N >= MIN_DIM) {
-            if (modelInfo.isPureQP() && modelInfo.isSmall()) {
+            if (modelInfo.isPureQP()) {
                 for (String sol : SOLVERS) {
                     WORK.add(new ModelSolverPair(mod, sol));
                 }
@@ -84,8 +86,20 @@ public final class MarosMeszarosBenchmark extends AbstractBenchmark {
     public static void main(final String[] args) {
 
         Configuration configuration = new Configuration();
+        configuration.parse(args);
 
-        configuration.pathPrefix = "/optimisation/marosmeszaros/";
+        if (configuration.profiles.isEmpty()) {
+            // Select with "--profile=..." or default to the small models
+            WORK.removeIf(pair -> !CuteMarosMeszarosCase.getModelInfo(pair.model).isSmall());
+        }
+
+        configuration.pathPrefix = PATH_PREFIX;
+
+        Set<String> models = new HashSet<>();
+        for (ModelSolverPair pair : WORK) {
+            models.add(pair.model);
+        }
+        configuration.corpus = CorpusIndex.of("marosmeszaros", PATH_PREFIX, configuration.pathSuffix, models);
         configuration.refeenceSolver = Contender.CPLEX;
         configuration.parallelism = Parallelism.ONE;
 
@@ -0,0 +1,143 @@
+/*
+ * Copyright 1997-2025 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.benchmark.integer.miplib2017;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import org.ojalgo.TestUtils;
+import org.ojalgo.benchmark.MPSReader;
+import org.ojalgo.netio.ASCII;
+import org.ojalgo.netio.BasicLogger;
+import org.ojalgo.netio.TextLineWriter;
+import org.ojalgo.netio.TextLineWriter.CSVLineBuilder;
+import org.ojalgo.optimisation.ExpressionsBasedModel;
+import org.ojalgo.optimisation.ExpressionsBasedModel.FileFormat;
+
+/**
+ * Load every MIPLIB 2017 file, in turn, with {@link ExpressionsBasedModel#parse(InputStream, FileFormat)} (via a
+ * plain {@link GZIPInputStream}, as {@link MIPLIB2017} did before) and with the streaming {@link MPSReader}
+ * (that the MIPLIB runs now use). Time
+ * and allocated bytes are logged and written to a CSV file.
+ */
+public final class CompareMPSReaders extends MIPLIB2017 {
+
+    static final class Measurement {
+
+        final long allocated;
+        final int nbExpressions;
+        final int nbVariables;
+        /**
+         * ns
+         */
+        final long time;
+
+        Measurement(final ExpressionsBasedModel model, final long time, final long allocated) {
+            super();
+            nbVariables = model.countVariables();
+            nbExpressions = model.countExpressions();
+            this.time = time;
+            this.allocated = allocated;
+        }
+
+    }
+
+    static final Path DIRECTORY = Path.of("./src/test/resources/MIPLIB2017");
+
+    public static void main(final String[] args) throws IOException {
+
+        List<String> fileNames;
+        try (Stream<Path> files = Files.list(DIRECTORY)) {
+            fileNames = files.map(file -> file.getFileName().toString()).filter(name -> name.endsWith(".mps.gz")).sorted().toList();
+        }
+
+        // Warm up both readers
+        String first = fileNames.get(0);
+        CompareMPSReaders.parse(first);
+        CompareMPSReaders.stream(first);
+
+        long totParse = 0L;
+        long totStream = 0L;
+
+        try (TextLineWriter writer = TextLineWriter.of("./src/main/resources/mps_reader_comparison.csv")) {
+
+            CSVLineBuilder csv = writer.newCSVLineBuilder(ASCII.HT);
+
+            csv.line("Model", "nbVars", "nbExpr", "ParseTime", "ParseAllocated", "StreamTime", "StreamAllocated");
+
+            for (String fileName : fileNames) {
+
+                Measurement parsed = CompareMPSReaders.parse(fileName);
+                Measurement streamed = CompareMPSReaders.stream(fileName);
+
+                totParse += parsed.time;
+                totStream += streamed.time;
+
+                BasicLogger.debug("{}: parse {}ms {}MB, stream {}ms {}MB", fileName, parsed.time / 1_000_000L, parsed.allocated >> 20,
+                        streamed.time / 1_000_000L, streamed.allocated >> 20);
+
+                csv.line(fileName, parsed.nbVariables, parsed.nbExpressions, parsed.time, parsed.allocated, streamed.time, streamed.allocated);
+            }
+        }
+
+        BasicLogger.debug();
+        BasicLogger.debug("Total parse {}ms, stream {}ms ({} files)", totParse / 1_000_000L, totStream / 1_000_000L, fileNames.size());
+    }
+
+    private static long allocated() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads) {
+            return threads.getCurrentThreadAllocatedBytes();
+        } else {
+            return -1L;
+        }
+    }
+
+    private static Measurement parse(final String fileName) throws IOException {
+
+        long allocated = CompareMPSReaders.allocated();
+        long start = System.nanoTime();
+
+        try (InputStream input = new GZIPInputStream(TestUtils.getResource("MIPLIB2017", fileName))) {
+
+            ExpressionsBasedModel model = ExpressionsBasedModel.parse(input, FileFormat.MPS);
+
+            return new Measurement(model, System.nanoTime() - start, CompareMPSReaders.allocated() - allocated);
+        }
+    }
+
+    private static Measurement stream(final String fileName) {
+
+        long allocated = CompareMPSReaders.allocated();
+        long start = System.nanoTime();
+
+        ExpressionsBasedModel model = MPSReader.read(DIRECTORY.resolve(fileName)).model;
+
+        return new Measurement(model, System.nanoTime() - start, CompareMPSReaders.allocated() - allocated);
+    }
+
+}
@@ -23,19 +23,23 @@ package org.ojalgo.benchmark.integer.miplib2017;
 
 import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
-import java.util.zip.GZIPInputStream;
+import java.util.TreeMap;
 
 import org.ojalgo.TestUtils;
+import org.ojalgo.benchmark.MPSReader;
+import org.ojalgo.benchmark.ParameterSweep;
 import org.ojalgo.netio.BasicLogger;
 import org.ojalgo.optimisation.ExpressionsBasedModel;
-import org.ojalgo.optimisation.ExpressionsBasedModel.FileFormat;
 import org.ojalgo.optimisation.Optimisation;
 import org.ojalgo.optimisation.Optimisation.Result;
 import org.ojalgo.optimisation.Optimisation.State;
@@ -57,7 +61,16 @@ public abstract class MIPLIB2017 {
      */
     static final Map<String, BigDecimal> INSTANCES = new HashMap<>();
     static final Set<String> KNOWN_PROBLEMS = new HashSet<>();
+    /**
+     * Map file name to (tuned) strategy. Loaded from {@link #STRATEGIES_FILE} and written there by
+     * {@link StrategyTuner}.
+     */
     static final Map<String, IntegerStrategy> STRATEGIES = new HashMap<>();
+    /**
+     * File name, gap tolerance precision (empty means default) and priorities (names joined with '+', empty
+     * means default) - tab separated.
+     */
+    static final Path STRATEGIES_FILE = Path.of("./src/test/resources/MIPLIB2017/strategies.tsv");
     static final Stopwatch TIMER = new Stopwatch();
 
     static {
@@ -133,10 +146,25 @@ public abstract class MIPLIB2017 {
             throw new RuntimeException(cause);
         }
 
+        if (Files.exists(STRATEGIES_FILE)) {
+            try {
+                for (String strategy : Files.readAllLines(STRATEGIES_FILE, StandardCharsets.UTF_8)) {
+                    String[] fields = strategy.split("\t", -1);
+                    if (fields.length == 3) {
+                        STRATEGIES.put(fields[0], MIPLIB2017.strategy(fields[1], fields[2]));
+                    }
+                }
+            } catch (IOException cause) {
+                throw new RuntimeException(cause);
+            }
+        }
     }
 
-    private static Optimisation.Result execute(final String fileName, final boolean relaxed, final int sizeLimit, final boolean optimal,
-            final Optimisation.Options options) {
+    /**
+     * @param telemetry If not null, and not relaxed, the {@link Telemetry} of the solve is put here
+     */
+    static Optimisation.Result execute(final String fileName, final boolean relaxed, final int sizeLimit, final boolean optimal,
+            final Optimisation.Options options, final Map<String, Telemetry> telemetry) {
 
         BigDecimal optimalValue = INSTANCES.get(fileName);
 
@@ -146,97 +174,135 @@ public abstract class MIPLIB2017 {
         BasicLogger.debug("===========================================");
         BasicLogger.debug();
 
-        try (InputStream input = new GZIPInputStream(TestUtils.getResource("MIPLIB2017", fileName))) {
+        MPSReader.Parsed parsed = MPSReader.read("/MIPLIB2017/" + fileName);
+        ExpressionsBasedModel model = parsed.model;
 
-            ExpressionsBasedModel model = ExpressionsBasedModel.parse(input, FileFormat.MPS);
+        model.options.time_suffice = options.time_suffice;
+        model.options.time_abort = options.time_abort;
+        model.options.integer(options.integer());
+        if (relaxed) {
+            model.options.progress(LinearSolver.class);
+        } else {
+            model.options.progress(IntegerSolver.class);
+        }
 
-            model.options.time_suffice = options.time_suffice;
-            model.options.time_abort = options.time_abort;
-            model.options.integer(options.integer());
-            if (relaxed) {
-                model.options.progress(LinearSolver.class);
-            } else {
-                model.options.progress(IntegerSolver.class);
-            }
+        int nbVariables = model.countVariables();
+        int nbExpressions = model.countExpressions();
+        boolean maximisation = parsed.sense == Optimisation.Sense.MAX;
 
-            int nbVariables = model.countVariables();
-            int nbExpressions = model.countExpressions();
-            boolean maximisation = model.getOptimisationSense() == Optimisation.Sense.MAX;
+        BasicLogger.debug("There are {} variables and {} expressions.", nbVariables, nbExpressions);
 
-            BasicLogger.debug("There are {} variables and {} expressions.", nbVariables, nbExpressions);
+        if (relaxed) {
+            model.relax(false);
+        }
 
-            if (relaxed) {
-                model.relax(false);
-            }
+        if (nbVariables > sizeLimit || nbExpressions > sizeLimit) {
+            BasicLogger.debug("Skipping {} because of size limit: {}", fileName, sizeLimit);
+            BasicLogger.debug();
+            return Result.of(State.UNEXPLORED);
+        }
 
-            if (nbVariables > sizeLimit || nbExpressions > sizeLimit) {
-                BasicLogger.debug("Skipping {} because of size limit: {}", fileName, sizeLimit);
-                BasicLogger.debug();
-                return Result.of(State.UNEXPLORED);
-            }
+        Telemetry progress = null;
+        if (!relaxed && telemetry != null) {
+            progress = new Telemetry(model.options.logger_appender, maximisation);
+            model.options.logger_appender = progress;
+            telemetry.put(fileName, progress);
+        }
+
+        Optimisation.Result result = null;
+
+        TIMER.reset();
+        if (progress != null) {
+            progress.start();
+        }
+
+        if (maximisation) {
+            result = model.maximise();
+        } else {
+            result = model.minimise();
+        }
 
-            Optimisation.Result result = null;
+        if (progress != null) {
+            progress.stop();
+            BasicLogger.debug("First feasible after {}s, within {} gap after {}s, primal integral {}", progress.timeToFirstFeasible(),
+                    Telemetry.TARGET_GAP, progress.timeToGap(optimalValue.doubleValue(), Telemetry.TARGET_GAP),
+                    progress.primalIntegral(optimalValue.doubleValue()));
+        }
 
-            TIMER.reset();
+        BasicLogger.debug();
+        BasicLogger.debug("{} in {}, {} was {}", fileName, TIMER.stop(CalendarDateUnit.SECOND), optimalValue, result.toString());
 
-            if (maximisation) {
-                result = model.maximise();
+        try {
+            if (optimal) {
+                TestUtils.assertStateNotLessThanOptimal(result);
             } else {
-                result = model.minimise();
+                TestUtils.assertStateNotLessThanFeasible(result);
             }
+        } catch (AssertionFailedError cause) {
+            BasicLogger.debug(State.FAILED);
+            return result.withState(State.FAILED);
+        }
 
-            BasicLogger.debug();
-            BasicLogger.debug("{} in {}, {} was {}", fileName, TIMER.stop(CalendarDateUnit.SECOND), optimalValue, result.toString());
+        double expected = optimalValue.doubleValue();
+        double actual = result.getValue();
 
-            try {
-                if (optimal) {
-                    TestUtils.assertStateNotLessThanOptimal(result);
+        try {
+            if (relaxed || optimal) {
+                if (maximisation) {
+                    TestUtils.assertTrue(!ACCURACY.isDifferent(expected, actual) || actual > expected);
                 } else {
-                    TestUtils.assertStateNotLessThanFeasible(result);
+                    TestUtils.assertTrue(!ACCURACY.isDifferent(expected, actual) || actual < expected);
                 }
-            } catch (AssertionFailedError cause) {
-                BasicLogger.debug(State.FAILED);
-                return result.withState(State.FAILED);
             }
+        } catch (AssertionFailedError cause) {
+            BasicLogger.debug(State.APPROXIMATE);
+            return result.withState(State.APPROXIMATE);
+        }
 
-            double expected = optimalValue.doubleValue();
-            double actual = result.getValue();
+        return result;
+    }
 
-            try {
-                if (relaxed || optimal) {
-                    if (maximisation) {
-                        TestUtils.assertTrue(!ACCURACY.isDifferent(expected, actual) || actual > expected);
-                    } else {
-                        TestUtils.assertTrue(!ACCURACY.isDifferent(expected, actual) || actual < expected);
-                    }
-                }
-            } catch (AssertionFailedError cause) {
-                BasicLogger.debug(State.APPROXIMATE);
-                return result.withState(State.APPROXIMATE);
-            }
+    /**
+     * @param gap Gap tolerance precision, empty means default
+     * @param priorities {@link ParameterSweep#NODE_KEYS} names joined with '+', empty means default
+     */
+    static IntegerStrategy.ConfigurableStrategy strategy(final String gap, final String priorities) {
 
-            return result;
+        IntegerStrategy.ConfigurableStrategy strategy = IntegerStrategy.DEFAULT;
 
-        } catch (IOException cause) {
-            throw new RuntimeException(cause);
+        if (!gap.isEmpty()) {
+            strategy = strategy.withGapTolerance(NumberContext.of(Integer.parseInt(gap)));
+        }
+
+        if (!priorities.isEmpty()) {
+            strategy = strategy.withPriorityDefinitions(ParameterSweep.priorities(priorities));
         }
+
+        return strategy;
     }
 
     static void doOne(final String fileName, final Optimisation.Options options) {
-        MIPLIB2017.execute(fileName, false, Integer.MAX_VALUE, true, options);
+        MIPLIB2017.execute(fileName, false, Integer.MAX_VALUE, true, options, null);
     }
 
     static void doRun(final boolean relaxed, final int sizeLimit, final boolean optimal, final Optimisation.Options options) {
 
         FrequencyMap<Optimisation.State> statistics = new FrequencyMap<>();
+        Map<String, Optimisation.State> states = new TreeMap<>();
+        Map<String, Telemetry> telemetry = new HashMap<>();
 
         for (String fileName : MIPLIB2017.INSTANCES.keySet()) {
 
-            IntegerStrategy strategy = STRATEGIES.getOrDefault(fileName, IntegerStrategy.DEFAULT);
+            // Leave the caller's options as they are - each instance may have its own tuned strategy
+            Optimisation.Options instance = new Optimisation.Options();
+            instance.time_suffice = options.time_suffice;
+            instance.time_abort = options.time_abort;
+            instance.integer(STRATEGIES.getOrDefault(fileName, options.integer()));
 
-            Result result = MIPLIB2017.execute(fileName, relaxed, sizeLimit, optimal, options);
+            Result result = MIPLIB2017.execute(fileName, relaxed, sizeLimit, optimal, instance, telemetry);
 
             statistics.increment(result.getState());
+            states.put(fileName, result.getState());
         }
 
         BasicLogger.debug();
@@ -246,6 +312,57 @@ public abstract class MIPLIB2017 {
         for (State key : statistics.elements()) {
             BasicLogger.debug("{} = {}", key, statistics.getFrequency(key));
         }
+
+        if (!telemetry.isEmpty()) {
+            MIPLIB2017.report(states, telemetry);
+        }
+    }
+
+    /**
+     * Time to first feasible, time to target gap and primal integral per instance - how fast the solver gets
+     * close, not just whether it finished. Summarised by the mean primal integral (lower is better).
+     */
+    private static void report(final Map<String, Optimisation.State> states, final Map<String, Telemetry> telemetry) {
+
+        BasicLogger.debug();
+        BasicLogger.debug();
+        BasicLogger.debug("Telemetry (target gap {})", Telemetry.TARGET_GAP);
+        BasicLogger.debug("===========================================");
+        BasicLogger.debug("Model\tState\tTime\tFirstFeasible\tTargetGap\tPrimalIntegral\tIncumbents\tNodes");
+
+        int nbFeasible = 0;
+        int nbTarget = 0;
+        double sumIntegral = 0.0;
+
+        for (Entry<String, Optimisation.State> entry : states.entrySet()) {
+
+            String fileName = entry.getKey();
+            Telemetry progress = telemetry.get(fileName);
+            if (progress == null) {
+                continue;
+            }
+
+            double optimal = INSTANCES.get(fileName).doubleValue();
+            double firstFeasible = progress.timeToFirstFeasible();
+            double targetGap = progress.timeToGap(optimal, Telemetry.TARGET_GAP);
+            double primalIntegral = progress.primalIntegral(optimal);
+
+            BasicLogger.debug("{}\t{}\t{}\t{}\t{}\t{}\t{}\t{}", fileName, entry.getValue(), progress.getTime(), firstFeasible, targetGap, primalIntegral,
+                    progress.getIncumbents().size(), progress.getNodes());
+
+            if (!Double.isNaN(firstFeasible)) {
+                nbFeasible++;
+            }
+            if (!Double.isNaN(targetGap)) {
+                nbTarget++;
+            }
+            sumIntegral += primalIntegral;
+        }
+
+        BasicLogger.debug();
+        BasicLogger.debug("Feasible {} of {}, within target gap {} of {}, mean primal integral {}", nbFeasible, telemetry.size(), nbTarget, telemetry.size(),
+                sumIntegral / telemetry.size());
+        BasicLogger.debug(Telemetry.NOT_AVAILABLE);
     }
 
 }
@@ -0,0 +1,140 @@
+/*
+ * Copyright 1997-2025 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.benchmark.integer.miplib2017;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.ojalgo.benchmark.AbstractBenchmark;
+import org.ojalgo.benchmark.CorpusIndex;
+import org.ojalgo.optimisation.Optimisation;
+import org.ojalgo.type.CalendarDateUnit;
+
+/**
+ * The {@link RelaxedLP}, {@link FeasibleMIP} and {@link OptimalMIP} runs, but executed as model/solver pairs
+ * through the forked, parallel {@link AbstractBenchmark} harness - with timeout isolation and contender
+ * comparison. Select the mode with a program argument: RELAXED_LP (default), FEASIBLE_MIP or OPTIMAL_MIP.
+ */
+public final class MIPLIB2017Benchmark extends AbstractBenchmark {
+
+    enum Mode {
+
+        /**
+         * Solve the relaxed LP within 1min.
+         */
+        RELAXED_LP(true, Optimisation.State.OPTIMAL, 1L, 1L, 2_000),
+        /**
+         * Find feasible MIP solution within 1min.
+         */
+        FEASIBLE_MIP(false, Optimisation.State.FEASIBLE, 1L, 2L, 200),
+        /**
+         * Find optimal MIP solution within 5min.
+         */
+        OPTIMAL_MIP(false, Optimisation.State.OPTIMAL, 5L, 5L, 50);
+
+        final long abort;
+        final boolean relax;
+        final Optimisation.State required;
+        /**
+         * Models with more variables or expressions than this are skipped (same as the sizeLimit of the
+         * corresponding {@link MIPLIB2017} run)
+         */
+        final int sizeLimit;
+        final long suffice;
+
+        Mode(final boolean relax, final Optimisation.State required, final long sufficeMinutes, final long abortMinutes, final int sizeLimit) {
+            this.relax = relax;
+            this.required = required;
+            this.sizeLimit = sizeLimit;
+            suffice = sufficeMinutes * CalendarDateUnit.MINUTE.toDurationInMillis();
+            abort = abortMinutes * CalendarDateUnit.MINUTE.toDurationInMillis();
+        }
+
+    }
+
+    static final String[] SOLVERS = { Contender.OJALGO, Contender.ORTOOLS };
+
+    static final String SUFFIX = ".mps.gz";
+
+    public static void main(final String[] args) {
+
+        Mode mode = Mode.RELAXED_LP;
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                mode = Mode.valueOf(arg);
+            }
+        }
+
+        Configuration configuration = new Configuration();
+        configuration.parse(args);
+
+        configuration.pathPrefix = "/MIPLIB2017/";
+        configuration.pathSuffix = SUFFIX;
+        configuration.refeenceSolver = Contender.ORTOOLS;
+
+        configuration.relax = mode.relax;
+        configuration.requiredState = mode.required;
+        configuration.timeSuffice = mode.suffice;
+        configuration.timeAbort = mode.abort;
+        // Let the solvers abort by themselves, before the harness kills them
+        configuration.maxWaitTime = mode.abort + CalendarDateUnit.MINUTE.toDurationInMillis();
+        if (!mode.relax) {
+            // A MIP solve takes minutes - one sample each, no stopping rule
+            configuration.minSamples = 1;
+            configuration.maxSamples = 1;
+        }
+
+        Set<ModelSolverPair> work = new HashSet<>();
+        Set<String> models = new HashSet<>();
+
+        for (Entry<String, BigDecimal> entry : MIPLIB2017.INSTANCES.entrySet()) {
+
+            String model = entry.getKey().substring(0, entry.getKey().length() - SUFFIX.length());
+            models.add(model);
+
+            if (!mode.relax) {
+                // The relaxed LP optimum is just a bound
+                configuration.values.put(model, entry.getValue());
+            }
+
+        }
+
+        configuration.corpus = CorpusIndex.of("miplib2017", configuration.pathPrefix, SUFFIX, models);
+
+        for (String model : models) {
+
+            CorpusIndex.Entry entry = configuration.corpus.get(model);
+            if (entry == null || entry.nbVariables > mode.sizeLimit || entry.nbExpressions > mode.sizeLimit) {
+                continue;
+            }
+
+            for (String solver : SOLVERS) {
+                work.add(new ModelSolverPair(model, solver));
+            }
+        }
+
+        AbstractBenchmark.doBenchmark(work, configuration);
+    }
+
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 1997-2025 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.benchmark.integer.miplib2017;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.ojalgo.benchmark.ForkedTask;
+import org.ojalgo.netio.BasicLogger;
+import org.ojalgo.optimisation.Optimisation;
+import org.ojalgo.optimisation.Optimisation.Result;
+import org.ojalgo.optimisation.Optimisation.State;
+import org.ojalgo.optimisation.integer.IntegerStrategy;
+import org.ojalgo.type.CalendarDateUnit;
+
+/**
+ * Find optimal MIP solution within 1min, with 1, 2, 4... threads up to the number of cores - how does
+ * {@link org.ojalgo.optimisation.integer.IntegerSolver} scale? The parallelism is set with
+ * {@link IntegerStrategy.ConfigurableStrategy#withParallelism(java.util.function.IntSupplier)}. Reports speedup,
+ * efficiency, node throughput per thread and search effort (nodes relative to 1 thread) per instance and thread
+ * count.
+ * <p>
+ * All runs are in the same JVM. Each instance is first solved once, unmeasured, so that JIT compilation and
+ * class loading don't count against the 1 thread run (which would inflate the speedups).
+ * <p>
+ * Program arguments select instances (file names), by default all instances within the size limit are used.
+ */
+public final class ParallelMIP extends MIPLIB2017 {
+
+    static final class Run {
+
+        final int threads;
+        final Optimisation.State state;
+        final Telemetry telemetry;
+
+        Run(final int threads, final Optimisation.State state, final Telemetry telemetry) {
+            super();
+            this.threads = threads;
+            this.state = state;
+            this.telemetry = telemetry;
+        }
+
+        double nodes() {
+            return telemetry.getIterations();
+        }
+
+        double time() {
+            return telemetry.getTime();
+        }
+
+    }
+
+    static final int SIZE_LIMIT = 50;
+
+    public static void main(final String[] args) {
+
+        long abort = 1L * CalendarDateUnit.MINUTE.toDurationInMillis();
+
+        int[] threads = ForkedTask.concurrencies(Runtime.getRuntime().availableProcessors());
+
+        Set<String> fileNames = new TreeSet<>();
+        for (String arg : args) {
+            String fileName = arg.endsWith(".mps.gz") ? arg : arg + ".mps.gz";
+            if (MIPLIB2017.INSTANCES.containsKey(fileName)) {
+                fileNames.add(fileName);
+            } else {
+                BasicLogger.debug("Skipping {} - not among the instances with a known optimal value", fileName);
+            }
+        }
+        if (fileNames.isEmpty()) {
+            fileNames.addAll(MIPLIB2017.INSTANCES.keySet());
+        }
+
+        Map<String, List<Run>> runs = new HashMap<>();
+
+        for (String fileName : fileNames) {
+
+            Map<String, Telemetry> warmUp = new HashMap<>();
+            MIPLIB2017.execute(fileName, false, SIZE_LIMIT, true, ParallelMIP.options(abort, threads[threads.length - 1]), warmUp);
+            if (!warmUp.containsKey(fileName)) {
+                // Skipped because of size limit
+                continue;
+            }
+
+            for (int nbThreads : threads) {
+
+                Map<String, Telemetry> telemetry = new HashMap<>();
+
+                Result result = MIPLIB2017.execute(fileName, false, SIZE_LIMIT, true, ParallelMIP.options(abort, nbThreads), telemetry);
+
+                if (!telemetry.containsKey(fileName)) {
+                    // Skipped because of size limit
+                    break;
+                }
+
+                runs.computeIfAbsent(fileName, k -> new ArrayList<>()).add(new Run(nbThreads, result.getState(), telemetry.get(fileName)));
+            }
+        }
+
+        ParallelMIP.report(fileNames, threads, runs);
+    }
+
+    static Optimisation.Options options(final long abort, final int nbThreads) {
+        Optimisation.Options options = new Optimisation.Options();
+        options.time_suffice = abort;
+        options.time_abort = abort;
+        options.integer(IntegerStrategy.DEFAULT.withParallelism(() -> nbThreads));
+        return options;
+    }
+
+    /**
+     * Per instance and thread count, relative to 1 thread. Summarised by the geometric means over the instances
+     * solved to optimality at all thread counts - with a time limit, the other speedups are capped.
+     */
+    static void report(final Set<String> fileNames, final int[] threads, final Map<String, List<Run>> runs) {
+
+        BasicLogger.debug();
+        BasicLogger.debug();
+        BasicLogger.debug("Parallel speedup");
+        BasicLogger.debug("===========================================");
+        BasicLogger.debug("Model\tThreads\tState\tTime\tSpeedup\tEfficiency\tNodes\tNodesPerSecondPerThread\tEffort");
+
+        double[] logSpeedup = new double[threads.length];
+        double[] logEffort = new double[threads.length];
+        int nbComplete = 0;
+
+        for (String fileName : fileNames) {
+
+            List<Run> instance = runs.get(fileName);
+            if (instance == null) {
+                continue;
+            }
+
+            Run reference = instance.get(0);
+            boolean complete = instance.size() == threads.length;
+
+            for (Run run : instance) {
+
+                double speedup = reference.time() / run.time();
+                double effort = run.nodes() / reference.nodes();
+
+                BasicLogger.debug("{}\t{}\t{}\t{}\t{}\t{}\t{}\t{}\t{}", fileName, run.threads, run.state, run.time(), speedup, speedup / run.threads,
+                        run.telemetry.getIterations(), run.nodes() / run.time() / run.threads, effort);
+
+                complete &= run.state.isOptimal() && run.nodes() > 0.0;
+            }
+
+            if (complete) {
+                for (int i = 0; i < threads.length; i++) {
+                    Run run = instance.get(i);
+                    logSpeedup[i] += Math.log(reference.time() / run.time());
+                    logEffort[i] += Math.log(run.nodes() / reference.nodes());
+                }
+                nbComplete++;
+            }
+        }
+
+        BasicLogger.debug();
+        BasicLogger.debug("Geometric means over {} instances solved to optimality at all thread counts", nbComplete);
+        BasicLogger.debug("Threads\tSpeedup\tEfficiency\tEffort");
+        if (nbComplete > 0) {
+            for (int i = 0; i < threads.length; i++) {
+                double speedup = Math.exp(logSpeedup[i] / nbComplete);
+                BasicLogger.debug("{}\t{}\t{}\t{}", threads[i], speedup, speedup / threads[i], Math.exp(logEffort[i] / nbComplete));
+            }
+        }
+        BasicLogger.debug(Telemetry.NOT_AVAILABLE);
+    }
+
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 1997-2025 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.benchmark.integer.miplib2017;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.ojalgo.netio.BasicLogger;
+import org.ojalgo.optimisation.Optimisation;
+import org.ojalgo.optimisation.Optimisation.Result;
+import org.ojalgo.optimisation.integer.IntegerStrategy;
+import org.ojalgo.type.CalendarDateUnit;
+
+/**
+ * Races candidate {@link IntegerStrategy.ConfigurableStrategy} settings per instance using successive halving:
+ * all candidates get a short budget, the better half (lowest primal integral) continues with twice the budget,
+ * and so on until one is left. The winner is written to {@link MIPLIB2017#STRATEGIES_FILE}, from where
+ * {@link MIPLIB2017#doRun(boolean, int, boolean, Optimisation.Options)} picks it up.
+ * <p>
+ * Program arguments select instances (file names), by default all instances within the size limit are tuned.
+ */
+public final class StrategyTuner extends MIPLIB2017 {
+
+    static final class Candidate {
+
+        /**
+         * Gap tolerance precision, empty means default
+         */
+        final String gap;
+        /**
+         * Priority names joined with '+', empty means default
+         */
+        final String priorities;
+        double score = Double.NaN;
+
+        Candidate(final String gap, final String priorities) {
+            super();
+            this.gap = gap;
+            this.priorities = priorities;
+        }
+
+        IntegerStrategy strategy() {
+            return MIPLIB2017.strategy(gap, priorities);
+        }
+
+        @Override
+        public String toString() {
+            return "gap=" + (gap.isEmpty() ? "default" : gap) + " priorities=" + (priorities.isEmpty() ? "default" : priorities);
+        }
+
+    }
+
+    static final String[] GAPS = { "", "6", "4" };
+
+    static final long INITIAL_BUDGET = 5L * CalendarDateUnit.SECOND.toDurationInMillis();
+
+    static final String[] PRIORITY_SETS = { "", "MIN_OBJECTIVE+DEPTH_FIRST_SEARCH+BREADTH_FIRST_SEARCH+LARGE_DISPLACEMENT+SMALL_DISPLACEMENT+MAX_OBJECTIVE",
+            "DEPTH_FIRST_SEARCH+MIN_OBJECTIVE", "LIFO_SEQUENCE+MIN_OBJECTIVE+LARGE_DISPLACEMENT" };
+
+    static final int SIZE_LIMIT = 200;
+
+    public static void main(final String[] args) {
+
+        Set<String> fileNames = new TreeSet<>();
+        for (String arg : args) {
+            String fileName = arg.endsWith(".mps.gz") ? arg : arg + ".mps.gz";
+            if (MIPLIB2017.INSTANCES.containsKey(fileName)) {
+                fileNames.add(fileName);
+            } else {
+                BasicLogger.debug("Skipping {} - not among the instances with a known optimal value", fileName);
+            }
+        }
+        if (fileNames.isEmpty()) {
+            fileNames.addAll(MIPLIB2017.INSTANCES.keySet());
+        }
+
+        for (String fileName : fileNames) {
+
+            Candidate winner = StrategyTuner.tune(fileName);
+
+            if (winner != null) {
+                BasicLogger.debug("{} tuned to {}", fileName, winner);
+                MIPLIB2017.STRATEGIES.put(fileName, winner.strategy());
+                StrategyTuner.save(fileName, winner);
+            }
+        }
+    }
+
+    static List<Candidate> candidates() {
+        List<Candidate> candidates = new ArrayList<>();
+        for (String gap : GAPS) {
+            for (String priorities : PRIORITY_SETS) {
+                candidates.add(new Candidate(gap, priorities));
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * @return The primal integral (seconds), or the full budget if no feasible solution was found, or NaN if the
+     *         instance was skipped
+     */
+    static double race(final String fileName, final Candidate candidate, final long budget) {
+
+        Optimisation.Options options = new Optimisation.Options();
+        options.time_suffice = budget;
+        options.time_abort = budget;
+        options.integer(candidate.strategy());
+
+        Map<String, Telemetry> telemetry = new HashMap<>();
+
+        Result result = MIPLIB2017.execute(fileName, false, SIZE_LIMIT, false, options, telemetry);
+
+        Telemetry progress = telemetry.get(fileName);
+        if (progress == null) {
+            return Double.NaN;
+        }
+        if (!result.getState().isFeasible()) {
+            return Math.max(progress.getTime(), budget / 1_000.0);
+        }
+        return progress.primalIntegral(MIPLIB2017.INSTANCES.get(fileName).doubleValue());
+    }
+
+    /**
+     * Rewrites the file with all previously tuned instances, and this one added/replaced
+     */
+    static void save(final String fileName, final Candidate winner) {
+        try {
+
+            Map<String, String> lines = new TreeMap<>();
+            if (Files.exists(STRATEGIES_FILE)) {
+                for (String line : Files.readAllLines(STRATEGIES_FILE, StandardCharsets.UTF_8)) {
+                    int tab = line.indexOf('\t');
+                    if (tab > 0) {
+                        lines.put(line.substring(0, tab), line);
+                    }
+                }
+            }
+            lines.put(fileName, fileName + '\t' + winner.gap + '\t' + winner.priorities);
+
+            Files.write(STRATEGIES_FILE, lines.values(), StandardCharsets.UTF_8);
+
+        } catch (IOException cause) {
+            throw new RuntimeException(cause);
+        }
+    }
+
+    /**
+     * Successive halving
+     *
+     * @return The winning candidate, or null if the instance was skipped
+     */
+    static Candidate tune(final String fileName) {
+
+        List<Candidate> candidates = StrategyTuner.candidates();
+
+        long budget = INITIAL_BUDGET;
+
+        while (candidates.size() > 1) {
+
+            BasicLogger.debug();
+            BasicLogger.debug("Racing {} candidates on {} with {}ms each", candidates.size(), fileName, budget);
+
+            for (Candidate candidate : candidates) {
+                candidate.score = StrategyTuner.race(fileName, candidate, budget);
+                if (Double.isNaN(candidate.score)) {
+                    return null;
+                }
+            }
+
+            candidates.sort(Comparator.comparingDouble(c -> c.score));
+
+            for (Candidate candidate : candidates) {
+                BasicLogger.debug("{}\t{}", candidate.score, candidate);
+            }
+
+            candidates = new ArrayList<>(candidates.subList(0, (candidates.size() + 1) / 2));
+            budget *= 2L;
+        }
+
+        return candidates.get(0);
+    }
+
+}
@@ -0,0 +1,363 @@
+/*
+ * Copyright 1997-2025 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.benchmark.integer.miplib2017;
+
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+
+import org.ojalgo.netio.BasicLogger;
+import org.ojalgo.optimisation.integer.NodeKey;
+
+/**
+ * Branch-and-bound telemetry. Installed as the {@link org.ojalgo.optimisation.Optimisation.Options#logger_appender}
+ * it picks up the progress events {@link org.ojalgo.optimisation.integer.IntegerSolver} logs, and passes
+ * everything on to the logger it replaced, so the console output stays the same.
+ * <p>
+ * Every integer solution found is recorded with its time, value, the bound of the node it was found in and that
+ * node's depth. When the solver is done the final node statistics are recorded. From that, and the known optimal
+ * value, the primal measures are derived: time to first feasible, time to target gap and the primal integral.
+ * <p>
+ * The global best bound and the number of open nodes are not exposed by the solver, and therefore there is no dual
+ * integral (and no open-node trace) - the report says so too. The events are recognised by the solver's log
+ * message formats; if none at all are recognised in a solve a warning is logged, as the formats have probably
+ * changed.
+ */
+final class Telemetry implements BasicLogger {
+
+    static final class Incumbent {
+
+        final double bound;
+        final int depth;
+        /**
+         * Seconds since the solve started
+         */
+        final double time;
+        final double value;
+
+        Incumbent(final double time, final double value, final double bound, final int depth) {
+            super();
+            this.time = time;
+            this.value = value;
+            this.bound = bound;
+            this.depth = depth;
+        }
+
+        @Override
+        public String toString() {
+            return time + "s " + value + " [" + bound + "] @ " + depth;
+        }
+
+    }
+
+    /**
+     * 1% primal gap
+     */
+    static final double TARGET_GAP = 0.01;
+
+    static final String DONE = "Done {} {} iterations in {} with {}";
+    static final String INTEGER = "[{}, {}] -> {}";
+    static final String NODE = "\t @ {}";
+    /**
+     * What the telemetry can't measure, for the reports
+     */
+    static final String NOT_AVAILABLE = "Not available: the global best bound and the number of open nodes (not exposed by the solver)"
+            + " - no dual gap, dual integral or open-node trace";
+
+    /**
+     * The primal gap function: 1.0 when there is no incumbent (or it has the wrong sign), otherwise
+     * |optimal - incumbent| / max(|optimal|, |incumbent|).
+     */
+    static double gap(final double incumbent, final double optimal) {
+        if (Double.isNaN(incumbent) || incumbent * optimal < 0.0) {
+            return 1.0;
+        }
+        double max = Math.max(Math.abs(incumbent), Math.abs(optimal));
+        if (max == 0.0) {
+            return 0.0;
+        }
+        return Math.min(1.0, Math.abs(optimal - incumbent) / max);
+    }
+
+    /**
+     * ns
+     */
+    private final LongSupplier myClock;
+    private final BasicLogger myDelegate;
+    private int myEvents = 0;
+    private final List<Incumbent> myIncumbents = new ArrayList<>();
+    private long myIterations = -1L;
+    private final boolean myMaximisation;
+    private String myNodes = null;
+    private long myStart;
+    private double myTime = Double.NaN;
+
+    Telemetry(final BasicLogger delegate, final boolean maximisation) {
+        this(delegate, maximisation, System::nanoTime);
+    }
+
+    /**
+     * @param clock ns, {@link System#nanoTime()} other than when testing
+     */
+    Telemetry(final BasicLogger delegate, final boolean maximisation, final LongSupplier clock) {
+        super();
+        myDelegate = delegate;
+        myMaximisation = maximisation;
+        myClock = clock;
+        myStart = clock.getAsLong();
+    }
+
+    @Override
+    public Optional<Writer> asWriter() {
+        return myDelegate.asWriter();
+    }
+
+    /**
+     * @return The number of recognised progress events (log messages) since start
+     */
+    synchronized int countEvents() {
+        return myEvents;
+    }
+
+    /**
+     * @return The best incumbent after each improvement
+     */
+    synchronized List<Incumbent> getIncumbents() {
+        return new ArrayList<>(myIncumbents);
+    }
+
+    /**
+     * @return The number of iterations (nodes) as logged by the solver when done, or -1 if the solver did not
+     *         finish
+     */
+    synchronized long getIterations() {
+        return myIterations;
+    }
+
+    /**
+     * @return The final node statistics as logged by the solver, or null if the solver did not finish
+     */
+    synchronized String getNodes() {
+        return myNodes;
+    }
+
+    /**
+     * @return Seconds from start to stop
+     */
+    synchronized double getTime() {
+        return myTime;
+    }
+
+    @Override
+    public void print(final boolean value) {
+        myDelegate.print(value);
+    }
+
+    @Override
+    public void print(final byte value) {
+        myDelegate.print(value);
+    }
+
+    @Override
+    public void print(final char value) {
+        myDelegate.print(value);
+    }
+
+    @Override
+    public void print(final double value) {
+        myDelegate.print(value);
+    }
+
+    @Override
+    public void print(final float value) {
+        myDelegate.print(value);
+    }
+
+    @Override
+    public void print(final int value) {
+        myDelegate.print(value);
+    }
+
+    @Override
+    public void print(final long value) {
+        myDelegate.print(value);
+    }
+
+    @Override
+    public void print(final Object value) {
+        myDelegate.print(value);
+    }
+
+    @Override
+    public void print(final short value) {
+        myDelegate.print(value);
+    }
+
+    @Override
+    public void print(final Throwable value) {
+        myDelegate.print(value);
+    }
+
+    @Override
+    public void printf(final String format, final Object... args) {
+        myDelegate.printf(format, args);
+    }
+
+    @Override
+    public void println() {
+        myDelegate.println();
+    }
+
+    @Override
+    public void println(final String message, final Object... args) {
+
+        if (INTEGER.equals(message) && args.length == 3) {
+            this.integer(args[0], args[1], args[2]);
+            this.event();
+        } else if (NODE.equals(message) && args.length == 1 && args[0] instanceof NodeKey) {
+            this.node((NodeKey) args[0]);
+            this.event();
+        } else if (DONE.equals(message) && args.length == 4) {
+            this.done(args[0], args[3]);
+            this.event();
+        }
+
+        myDelegate.println(message, args);
+    }
+
+    /**
+     * Integral of the primal gap function from start to stop, in seconds. A solver that has the optimal
+     * solution immediately scores 0.0, one that never finds a feasible solution scores the full time.
+     */
+    synchronized double primalIntegral(final double optimal) {
+
+        double integral = 0.0;
+        double previousTime = 0.0;
+        double previousGap = 1.0;
+
+        for (Incumbent incumbent : myIncumbents) {
+            double time = Math.min(incumbent.time, myTime);
+            integral += previousGap * (time - previousTime);
+            previousTime = time;
+            previousGap = Telemetry.gap(incumbent.value, optimal);
+        }
+
+        return integral + previousGap * Math.max(0.0, myTime - previousTime);
+    }
+
+    synchronized void start() {
+        myEvents = 0;
+        myIncumbents.clear();
+        myIterations = -1L;
+        myNodes = null;
+        myTime = Double.NaN;
+        myStart = myClock.getAsLong();
+    }
+
+    synchronized void stop() {
+        myTime = this.seconds();
+        if (myEvents == 0) {
+            BasicLogger.error("No progress events recognised in {}s - has the solver's log format changed? The telemetry is empty.", myTime);
+        }
+    }
+
+    /**
+     * @return Seconds until the first integer solution was found, or NaN if there was none
+     */
+    synchronized double timeToFirstFeasible() {
+        return myIncumbents.isEmpty() ? Double.NaN : myIncumbents.get(0).time;
+    }
+
+    /**
+     * @return Seconds until the primal gap was within the target, or NaN if it never was
+     */
+    synchronized double timeToGap(final double optimal, final double target) {
+        for (Incumbent incumbent : myIncumbents) {
+            if (Telemetry.gap(incumbent.value, optimal) <= target) {
+                return incumbent.time;
+            }
+        }
+        return Double.NaN;
+    }
+
+    private synchronized void done(final Object iterations, final Object statistics) {
+        if (iterations instanceof Number) {
+            myIterations = ((Number) iterations).longValue();
+        }
+        myNodes = String.valueOf(statistics);
+    }
+
+    private synchronized void event() {
+        myEvents++;
+    }
+
+    /**
+     * The lower/upper arguments are the node bound and the previous incumbent (which is which depends on the
+     * optimisation sense). The new integer solution is only available as its toString: "STATE value @ {...}".
+     */
+    private synchronized void integer(final Object lower, final Object upper, final Object result) {
+
+        double time = this.seconds();
+
+        String[] parts = String.valueOf(result).split("\\s+", 3);
+        if (parts.length < 2) {
+            return;
+        }
+
+        double value;
+        try {
+            value = Double.parseDouble(parts[1]);
+        } catch (NumberFormatException cause) {
+            return;
+        }
+
+        double bound = ((Number) (myMaximisation ? upper : lower)).doubleValue();
+
+        if (!myIncumbents.isEmpty()) {
+            double best = myIncumbents.get(myIncumbents.size() - 1).value;
+            if (myMaximisation ? value <= best : value >= best) {
+                return;
+            }
+        }
+
+        myIncumbents.add(new Incumbent(time, value, bound, -1));
+    }
+
+    /**
+     * Logged directly after the integer solution - completes the last incumbent with the depth of the node it was
+     * found in.
+     */
+    private synchronized void node(final NodeKey key) {
+        int last = myIncumbents.size() - 1;
+        if (last >= 0 && myIncumbents.get(last).depth < 0) {
+            Incumbent incumbent = myIncumbents.get(last);
+            myIncumbents.set(last, new Incumbent(incumbent.time, incumbent.value, incumbent.bound, key.depth));
+        }
+    }
+
+    private double seconds() {
+        return (myClock.getAsLong() - myStart) / 1_000_000_000.0;
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 1997-2025 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.benchmark.integer.miplib2017;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.netio.BasicLogger;
+
+/**
+ * Feeds {@link Telemetry} the log calls {@link org.ojalgo.optimisation.integer.IntegerSolver} makes, with a
+ * fake clock, and checks the derived primal measures.
+ */
+public final class TelemetryTest {
+
+    private static final double OPTIMAL = 100.0;
+
+    /**
+     * Minimise, optimal value 100: incumbent 120 after 2s, a non-improving 130 after 3s, the optimal 100 after
+     * 5s, done after 10s.
+     */
+    @Test
+    void testIncumbents() {
+
+        long[] now = { 0L };
+        Telemetry telemetry = new Telemetry(BasicLogger.DEBUG, false, () -> now[0]);
+
+        telemetry.start();
+
+        now[0] = 2_000_000_000L;
+        telemetry.println(Telemetry.INTEGER, 90.0, Double.POSITIVE_INFINITY, "FEASIBLE 120.0 @ { 1.0, 2.0 }");
+        now[0] = 3_000_000_000L;
+        telemetry.println(Telemetry.INTEGER, 95.0, 120.0, "FEASIBLE 130.0 @ { 1.0, 3.0 }");
+        now[0] = 5_000_000_000L;
+        telemetry.println(Telemetry.INTEGER, 98.0, 120.0, "FEASIBLE 100.0 @ { 0.0, 2.0 }");
+        now[0] = 10_000_000_000L;
+        telemetry.println(Telemetry.DONE, 42L, "OPTIMAL", "10s", "nodes");
+
+        telemetry.stop();
+
+        assertEquals(4, telemetry.countEvents(), "events");
+        assertEquals(2, telemetry.getIncumbents().size(), "incumbents");
+        assertEquals(42L, telemetry.getIterations(), "iterations");
+        assertEquals(10.0, telemetry.getTime(), 1E-9, "time");
+
+        assertEquals(2.0, telemetry.timeToFirstFeasible(), 1E-9, "first feasible");
+        assertEquals(5.0, telemetry.timeToGap(OPTIMAL, Telemetry.TARGET_GAP), 1E-9, "target gap");
+        assertEquals(2.0, telemetry.timeToGap(OPTIMAL, 0.2), 1E-9, "20% gap");
+
+        // 2s without incumbent (gap 1), 3s at 120 (gap 20/120), then optimal
+        assertEquals(2.0 + 3.0 * 20.0 / 120.0, telemetry.primalIntegral(OPTIMAL), 1E-9, "primal integral");
+    }
+
+    @Test
+    void testGap() {
+        assertEquals(1.0, Telemetry.gap(Double.NaN, OPTIMAL), "no incumbent");
+        assertEquals(1.0, Telemetry.gap(-5.0, OPTIMAL), "wrong sign");
+        assertEquals(0.0, Telemetry.gap(0.0, 0.0), "both zero");
+        assertEquals(0.0, Telemetry.gap(OPTIMAL, OPTIMAL), "optimal");
+        assertEquals(0.5, Telemetry.gap(50.0, OPTIMAL), 1E-9, "below");
+        assertEquals(2.0 / 3.0, Telemetry.gap(300.0, OPTIMAL), 1E-9, "above");
+    }
+
+    /**
+     * Nothing recognised, e.g. because the log format changed: the whole time counts, and there's nothing to
+     * measure from.
+     */
+    @Test
+    void testNoEvents() {
+
+        long[] now = { 0L };
+        Telemetry telemetry = new Telemetry(BasicLogger.DEBUG, false, () -> now[0]);
+
+        telemetry.start();
+        telemetry.println("Something else {}", 1);
+        now[0] = 4_000_000_000L;
+        telemetry.stop();
+
+        assertEquals(0, telemetry.countEvents(), "events");
+        assertTrue(Double.isNaN(telemetry.timeToFirstFeasible()), "first feasible");
+        assertTrue(Double.isNaN(telemetry.timeToGap(OPTIMAL, Telemetry.TARGET_GAP)), "target gap");
+        assertEquals(4.0, telemetry.primalIntegral(OPTIMAL), 1E-9, "primal integral");
+    }
+
+}
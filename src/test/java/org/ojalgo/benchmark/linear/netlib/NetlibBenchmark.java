@@ -22,17 +22,17 @@
 package org.ojalgo.benchmark.linear.netlib;
 
 import java.io.IOException;
-import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.ojalgo.TestUtils;
 import org.ojalgo.benchmark.AbstractBenchmark;
+import org.ojalgo.benchmark.CorpusIndex;
 import org.ojalgo.concurrent.Parallelism;
 import org.ojalgo.netio.BasicLogger;
 import org.ojalgo.netio.TextLineReader;
-import org.ojalgo.optimisation.ExpressionsBasedModel;
-import org.ojalgo.optimisation.ExpressionsBasedModel.FileFormat;
 
 public final class NetlibBenchmark extends AbstractBenchmark {
 
@@ -43,45 +43,50 @@ public final class NetlibBenchmark extends AbstractBenchmark {
             Contender.ORTOOLS, Contender.HIPPARCHUS };
     // static final String[] SOLVERS = { Contender.CPLEX, Contender.OJALGO_DUAL_SPARSE,
     // Contender.OJALGO_DUAL_DENSE };
+    static final CorpusIndex CORPUS;
+    static final String PATH_PREFIX = "/optimisation/netlib/";
+    static final String PATH_SUFFIX = ".SIF";
     static final Set<ModelSolverPair> WORK = new HashSet<>();
 
     static {
 
+        List<String> models = new ArrayList<>();
+
         // /ojAlgo/src/test/resources/optimisation/netlib/NETLIB.dat
         try (TextLineReader reader = new TextLineReader(TestUtils.getResource("optimisation", "netlib", "NETLIB.dat"))) {
 
-            reader.forEach(line -> {
-
-                try (InputStream input = TestUtils.getResource("optimisation", "netlib", line + ".SIF")) {
-
-                    ExpressionsBasedModel model = ExpressionsBasedModel.parse(input, FileFormat.MPS);
-
-                    ExpressionsBasedModel.Description description = model.describe();
-
-                    if (description.nbVariables >= MIN_NB_VARS && description.nbVariables <= MAX_NB_VARS && description.countConstraints() <= MAX_NB_VARS) {
-                        for (String solver : SOLVERS) {
-                            WORK.add(new ModelSolverPair(line, solver));
-                        }
-                    }
-
-                } catch (IOException cause) {
-                    BasicLogger.debug("Problem with model {}!", line);
-                    throw new RuntimeException(cause);
-                }
-
-            });
+            reader.forEach(models::add);
 
         } catch (IOException cause) {
             BasicLogger.debug("Problem reading list of models!");
             throw new RuntimeException(cause);
         }
+
+        CORPUS = CorpusIndex.of("netlib", PATH_PREFIX, PATH_SUFFIX, models);
+
+        for (String model : CORPUS.models()) {
+            for (String solver : SOLVERS) {
+                WORK.add(new ModelSolverPair(model, solver));
+            }
+        }
     }
 
     public static void main(final String[] args) {
 
         Configuration configuration = new Configuration();
+        configuration.parse(args);
+
+        if (configuration.profiles.isEmpty()) {
+            // Select with "--profile=..." or default to the MIN_NB_VARS/MAX_NB_VARS limits
+            WORK.removeIf(pair -> {
+                CorpusIndex.Entry entry = CORPUS.get(pair.model);
+                return entry.nbVariables < MIN_NB_VARS || entry.nbVariables > MAX_NB_VARS || entry.nbConstraints > MAX_NB_VARS;
+            });
+        }
 
-        configuration.pathPrefix = "/optimisation/netlib/";
+        configuration.pathPrefix = PATH_PREFIX;
+        configuration.pathSuffix = PATH_SUFFIX;
+        configuration.corpus = CORPUS;
         configuration.refeenceSolver = Contender.ORTOOLS;
         configuration.parallelism = Parallelism.TWO;
 
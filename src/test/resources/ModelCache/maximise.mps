@@ -0,0 +1,18 @@
+NAME          MAXIMISE
+OBJSENSE
+    MAX
+ROWS
+ N  COST
+ L  LIM1
+ L  LIM2
+COLUMNS
+    X1        COST             1.0   LIM1             1.0
+    X1        LIM2             1.0
+    X2        COST             2.0   LIM1             1.0
+    X2        LIM2            -1.0
+RHS
+    RHS       LIM1             4.0   LIM2             1.0
+BOUNDS
+ UP BND       X1               4.0
+ UP BND       X2               3.0
+ENDATA